@@ -0,0 +1,86 @@
+package Example;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ga.Genome;
+import ga.PackedBitstring;
+
+/**
+ * measures the genetic operators of the boxed EvolvableBitstring, with the
+ * packed bitstring alongside for comparison
+ *
+ * the operators are applied to parents drawn round robin from a population so
+ * the branch predictor cannot learn a single genome
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EvolvableBitstringBenchmark {
+
+    @Param({ "100", "1000" })
+    public int populationSize;
+
+    @Param({ "100", "10000", "100000" })
+    public int genomeLength;
+
+    @Param({ "0.01" })
+    public double mutationRate;
+
+    private Random rand;
+    private EvolvableBitstring[] boxed;
+    private PackedBitstring[] packed;
+    private int next;
+
+    @Setup
+    public void setup() {
+        this.rand = new Random(27);
+        this.boxed = new EvolvableBitstring[this.populationSize];
+        this.packed = new PackedBitstring[this.populationSize];
+        for (int i = 0; i < this.populationSize; i++) {
+            this.boxed[i] = new EvolvableBitstring(this.genomeLength, this.rand);
+            this.packed[i] = new PackedBitstring(this.genomeLength, this.rand);
+        }
+    }
+
+    @Benchmark
+    public ArrayList<Genome> crossover() {
+        EvolvableBitstring mother = this.boxed[this.nextIndex()];
+        return mother.crossover(this.boxed[this.nextIndex()], this.rand);
+    }
+
+    @Benchmark
+    public EvolvableBitstring mutate() {
+        EvolvableBitstring genome = this.boxed[this.nextIndex()];
+        genome.mutate(this.mutationRate, this.rand);
+        return genome;
+    }
+
+    @Benchmark
+    public ArrayList<Genome> packedCrossover() {
+        PackedBitstring mother = this.packed[this.nextIndex()];
+        return mother.crossover(this.packed[this.nextIndex()], this.rand);
+    }
+
+    @Benchmark
+    public PackedBitstring packedMutate() {
+        PackedBitstring genome = this.packed[this.nextIndex()];
+        genome.mutate(this.mutationRate, this.rand);
+        return genome;
+    }
+
+    private int nextIndex() {
+        this.next = this.next + 1 == this.populationSize ? 0 : this.next + 1;
+        return this.next;
+    }
+}
@@ -0,0 +1,37 @@
+package ga;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * helpers shared by the benchmarks
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * ensures: writes a temporary genetic algorithm config file and returns its path
+     *
+     * @param populationSize  the population size
+     * @param selectionMethod the selection method
+     * @return the path of the config file
+     * @throws IOException if the file cannot be written
+     */
+    static String writeConfig(int populationSize, String selectionMethod) throws IOException {
+        File config = File.createTempFile("ga-benchmark", ".properties");
+        config.deleteOnExit();
+        try (PrintWriter pw = new PrintWriter(new FileWriter(config))) {
+            pw.println("population.size=" + populationSize);
+            pw.println("elite.count=5");
+            pw.println("mutation.rate=0.01");
+            // never stop early, the benchmark decides how long to run
+            pw.println("fitness.threshold=2.0");
+            pw.println("selection.method=" + selectionMethod);
+        }
+        return config.getPath();
+    }
+}
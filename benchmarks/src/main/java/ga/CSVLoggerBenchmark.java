@@ -0,0 +1,70 @@
+package ga;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * measures appending one row to a csv file, for rows as wide as a per-locus
+ * allele frequency log of the given genome length
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CSVLoggerBenchmark {
+    private static final String FILENAME = "benchmark.csv";
+
+    @Param({ "100", "1000", "10000" })
+    public int populationSize;
+
+    @Param({ "4", "100", "1000" })
+    public int genomeLength;
+
+    private File directory;
+    private CSVLogger logger;
+    private String row;
+
+    @Setup
+    public void setup() throws IOException, FileNotFoundException {
+        this.directory = Files.createTempDirectory("csv-benchmark").toFile();
+        this.logger = new CSVLogger(this.directory.getPath());
+
+        ArrayList<String> headers = new ArrayList<String>(this.genomeLength + 1);
+        headers.add("Generation");
+        StringBuilder row = new StringBuilder();
+        row.append(this.populationSize).append(',');
+        for (int column = 0; column < this.genomeLength; column++) {
+            headers.add("Allele" + column);
+            row.append((double) column / this.populationSize).append(',');
+        }
+        this.logger.createNewFile(FILENAME, headers);
+        this.row = row.toString();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.logger.closeAll();
+        for (File file : this.directory.listFiles()) {
+            file.delete();
+        }
+        this.directory.delete();
+    }
+
+    @Benchmark
+    public void appendRowToFile() {
+        this.logger.appendRowToFile(FILENAME, this.row);
+    }
+}
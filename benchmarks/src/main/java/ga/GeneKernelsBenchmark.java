@@ -0,0 +1,73 @@
+package ga;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * measures the operator kernels
+ *
+ * the kernels that draw random numbers are mostly bound by java.util.Random,
+ * the arithmetic crossover shows the kernel alone
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeneKernelsBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int genomeLength;
+
+    private Random rand;
+    private double[] a;
+    private double[] b;
+    private double[] first;
+    private double[] second;
+    private long[] mask;
+
+    @Setup
+    public void setup() {
+        this.rand = new Random(27);
+        this.a = new double[this.genomeLength];
+        this.b = new double[this.genomeLength];
+        for (int i = 0; i < this.genomeLength; i++) {
+            this.a[i] = this.rand.nextGaussian();
+            this.b[i] = this.rand.nextGaussian();
+        }
+        this.first = new double[this.genomeLength];
+        this.second = new double[this.genomeLength];
+        this.mask = new long[(this.genomeLength + 63) >>> 6];
+    }
+
+    @Benchmark
+    public long[] bitFlipMask() {
+        GeneKernels.bitFlipMask(this.mask, this.genomeLength, 0.3, this.rand);
+        return this.mask;
+    }
+
+    @Benchmark
+    public double[] arithmeticCrossover() {
+        GeneKernels.arithmeticCrossover(this.a, this.b, 0.3, this.first, this.second);
+        return this.first;
+    }
+
+    @Benchmark
+    public double[] blendCrossover() {
+        GeneKernels.blendCrossover(this.a, this.b, 0.5, this.first, this.rand);
+        return this.first;
+    }
+
+    @Benchmark
+    public double[] gaussianMutation() {
+        GeneKernels.gaussianMutation(this.first, 0.1, 0.1, -5.0, 5.0, this.rand);
+        return this.first;
+    }
+}
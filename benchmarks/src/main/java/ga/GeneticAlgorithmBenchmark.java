@@ -0,0 +1,56 @@
+package ga;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import Example.EvolvableBitstring;
+
+/**
+ * measures one full generation of the genetic algorithm for each selection
+ * method
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeneticAlgorithmBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    public int populationSize;
+
+    @Param({ "100", "1000" })
+    public int genomeLength;
+
+    @Param({ "truncation", "roulette", "ranked", "sus", "tournament", "uniform" })
+    public String selectionMethod;
+
+    private GeneticAlgorithm<EvolvableBitstring> ga;
+
+    @Setup
+    public void setup() throws IOException {
+        Random rand = new Random(27);
+        ArrayList<EvolvableBitstring> population = new ArrayList<EvolvableBitstring>(this.populationSize);
+        for (int i = 0; i < this.populationSize; i++) {
+            population.add(new EvolvableBitstring(this.genomeLength, rand));
+        }
+        this.ga = new GeneticAlgorithm<EvolvableBitstring>(
+                BenchmarkSupport.writeConfig(this.populationSize, this.selectionMethod), population, rand,
+                new ArrayList<Logger<EvolvableBitstring>>());
+    }
+
+    @Benchmark
+    public ArrayList<EvolvableBitstring> nextGeneration() {
+        this.ga.nextGeneration();
+        return this.ga.population();
+    }
+}
@@ -0,0 +1,120 @@
+package ga;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import Example.EvolvableBitstring;
+
+/**
+ * compares the selection used to pick survivors with a full sort, and measures
+ * finding the fittest genome
+ *
+ * every benchmark starts from a fresh copy of the same unsorted population, so
+ * the copy is part of every measurement. the topK benchmarks select on the
+ * fitness array alone, leaving out the cost of reading the fitness and applying
+ * the order to the list
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PartialSortBenchmark {
+
+    @Param({ "100", "1000", "10000", "100000" })
+    public int populationSize;
+
+    @Param({ "100", "1000" })
+    public int genomeLength;
+
+    private GeneticAlgorithm<EvolvableBitstring> ga;
+    private ArrayList<EvolvableBitstring> unsorted;
+    private ArrayList<EvolvableBitstring> working;
+    private int survivors;
+    private double[] fitness;
+    private int[] order;
+
+    @Setup
+    public void setup() throws IOException {
+        Random rand = new Random(27);
+        this.unsorted = new ArrayList<EvolvableBitstring>(this.populationSize);
+        for (int i = 0; i < this.populationSize; i++) {
+            this.unsorted.add(new EvolvableBitstring(this.genomeLength, rand));
+        }
+        this.working = new ArrayList<EvolvableBitstring>(this.unsorted);
+        // the same number of survivors nextGeneration keeps with 5 elites
+        this.survivors = this.populationSize - 5;
+        this.fitness = new double[this.populationSize];
+        for (int i = 0; i < this.populationSize; i++) {
+            this.fitness[i] = this.unsorted.get(i).fitness();
+        }
+        this.order = new int[this.populationSize];
+        this.ga = new GeneticAlgorithm<EvolvableBitstring>(
+                BenchmarkSupport.writeConfig(this.populationSize, "truncation"),
+                new ArrayList<EvolvableBitstring>(this.unsorted), rand, new ArrayList<Logger<EvolvableBitstring>>());
+    }
+
+    @Benchmark
+    public ArrayList<EvolvableBitstring> partialSortSurvivors() {
+        this.reset();
+        this.ga.partialSort(this.working, this.survivors);
+        return this.working;
+    }
+
+    @Benchmark
+    public ArrayList<EvolvableBitstring> partialSortHalf() {
+        this.reset();
+        this.ga.partialSort(this.working, this.populationSize >> 1);
+        return this.working;
+    }
+
+    @Benchmark
+    public ArrayList<EvolvableBitstring> fullSort() {
+        this.reset();
+        this.working.sort(Collections.reverseOrder());
+        return this.working;
+    }
+
+    @Benchmark
+    public int[] topKSurvivors() {
+        this.resetOrder();
+        TopK.select(this.order, this.fitness, this.populationSize, this.survivors);
+        return this.order;
+    }
+
+    @Benchmark
+    public int[] topKSurvivorsParallel() {
+        this.resetOrder();
+        TopK.selectParallel(this.order, this.fitness, this.populationSize, this.survivors,
+                ForkJoinPool.commonPool());
+        return this.order;
+    }
+
+    @Benchmark
+    public EvolvableBitstring findFittestGenome() {
+        this.reset();
+        return this.ga.findFittestGenome(this.working);
+    }
+
+    private void reset() {
+        this.working.clear();
+        this.working.addAll(this.unsorted);
+    }
+
+    private void resetOrder() {
+        for (int i = 0; i < this.populationSize; i++) {
+            this.order[i] = i;
+        }
+    }
+}
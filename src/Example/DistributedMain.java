@@ -0,0 +1,57 @@
+package Example;
+import ga.DistributedIsland;
+import ga.GeneticAlgorithm;
+import ga.Logger;
+import ga.GAConfig;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * runs one island of a multi-process island model, for example on loopback:
+ * 
+ * java Example.DistributedMain 1 localhost:5001 localhost:5002 localhost:5003
+ * java Example.DistributedMain 2 localhost:5002 localhost:5003 localhost:5001
+ * java Example.DistributedMain 3 localhost:5003 localhost:5001 localhost:5002
+ * 
+ * the arguments are the island number (added to the seed), the address to listen
+ * on, then the addresses of the islands to send migrants to
+ */
+public class DistributedMain {
+
+    private static final String GA_CONFIG_FILE = "src/Example/properties/geneticAlgorithm.properties";
+    private static final String MAIN_CONFIG_FILE = "src/Example/properties/bitstring.properties";
+
+    private static final int MIGRATION_INTERVAL = 10;
+    private static final int MIGRANT_COUNT = 3;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java Example.DistributedMain <island> <listen address> [peer address...]");
+            System.exit(1);
+        }
+        int island = Integer.parseInt(args[0]);
+
+        GAConfig settings = GAConfig.load(MAIN_CONFIG_FILE);
+        int genomeLength = Integer.parseInt(settings.get("genome.length"));
+        int populationSize = Integer.parseInt(settings.get("population.size"));
+        int generations = Integer.parseInt(settings.get("generations"));
+        Random rand = new Random(Integer.parseInt(settings.get("seed")) + island);
+
+        ArrayList<EvolvableBitstring> population = new ArrayList<EvolvableBitstring>(populationSize);
+        for (int i = 0; i < populationSize; i++) {
+            population.add(new EvolvableBitstring(genomeLength, rand));
+        }
+        GeneticAlgorithm<EvolvableBitstring> ga = new GeneticAlgorithm<EvolvableBitstring>(GA_CONFIG_FILE, population,
+                rand, new ArrayList<Logger<EvolvableBitstring>>());
+
+        try (DistributedIsland<EvolvableBitstring> node = new DistributedIsland<EvolvableBitstring>(ga,
+                new EvolvableBitstringCodec(genomeLength), rand, args[1], Arrays.asList(args).subList(2, args.length),
+                MIGRATION_INTERVAL, MIGRANT_COUNT)) {
+            EvolvableBitstring fittest = node.run(generations);
+            System.out.println("Island " + island + " generation: " + ga.generation());
+            System.out.println(fittest.fitness());
+        }
+    }
+}
@@ -2,11 +2,18 @@ package Example;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Random;
+import ga.DeltaEvaluable;
+import ga.GeneKernels;
 import ga.Genome;
 
 
-public class EvolvableBitstring extends Genome{
+public class EvolvableBitstring extends Genome implements DeltaEvaluable {
+    // reused by mutate on each thread, grown when a genome needs more
+    private static final ThreadLocal<long[]> MASK = ThreadLocal.withInitial(() -> new long[0]);
+    private static final ThreadLocal<int[]> FLIPPED = ThreadLocal.withInitial(() -> new int[4]);
+
     private ArrayList<Integer> genome;
+    private int ones;
 
     public EvolvableBitstring(int genomeLength, Random rand) {
         super(genomeLength, rand);
@@ -17,6 +24,7 @@ public class EvolvableBitstring extends Genome{
     public EvolvableBitstring(ArrayList<Integer> genome, Random rand) {
         super(genome.size(), rand);
         this.genome = genome;
+        this.calculateFitness();
     }
 
     public EvolvableBitstring(EvolvableBitstring mother, EvolvableBitstring father, int crossoverIndex) {
@@ -26,7 +34,8 @@ public class EvolvableBitstring extends Genome{
         this.genome.addAll(mother.genome().subList(0, crossoverIndex));
         this.genome.addAll(father.genome().subList(crossoverIndex, this.size));
 
-        this.calculateFitness();
+        this.ones = (int) DeltaEvaluable.crossoverFitness(mother, father, crossoverIndex, this.size);
+        this.fitness = (double) this.ones / this.size;
     }
 
     private ArrayList<Integer> createRandomGenome(int genomeLength) {
@@ -42,33 +51,119 @@ public class EvolvableBitstring extends Genome{
     }
 
     public void calculateFitness() {
-        double fitness = 0;
+        int ones = 0;
         for (int gene : this.genome) {
-            fitness += gene;
+            ones += gene;
         }
 
-        this.fitness = fitness / this.size;
+        this.ones = ones;
+        this.fitness = (double) ones / this.size;
+    }
+
+    @Override
+    public double rawFitness() {
+        return this.ones;
+    }
+
+    @Override
+    public double partialFitness(int from, int to) {
+        int ones = 0;
+        for (int gene = from; gene < to; gene++) {
+            ones += this.genome.get(gene);
+        }
+        return ones;
+    }
+
+    @Override
+    public void updateFitness(int[] changedLoci, int changedCount) {
+        for (int i = 0; i < changedCount; i++) {
+            // a gene that is now 1 was 0 before the change, and vice versa
+            this.ones += (this.genome.get(changedLoci[i]) << 1) - 1;
+        }
+        this.fitness = (double) this.ones / this.size;
     }
 
     @Override
     public ArrayList<Genome> crossover(Genome other) {
-        int crossoverIndex = this.rand.nextInt(this.size);
+        return this.crossover(other, this.rand);
+    }
+
+    @Override
+    public ArrayList<Genome> crossover(Genome other, Random rand) {
+        int crossoverIndex = rand.nextInt(this.size);
         EvolvableBitstring child1 = new EvolvableBitstring(this, (EvolvableBitstring) other, crossoverIndex);
         EvolvableBitstring child2 = new EvolvableBitstring((EvolvableBitstring) other, this, crossoverIndex);
 
         return new ArrayList<Genome>(Arrays.asList(child1, child2));
     }
 
+    @Override
+    public boolean crossoverInto(Genome other, Genome firstChild, Genome secondChild, Random rand) {
+        if (!(other instanceof EvolvableBitstring) || !(firstChild instanceof EvolvableBitstring)
+                || !(secondChild instanceof EvolvableBitstring)) {
+            return false;
+        }
+        int crossoverIndex = rand.nextInt(this.size);
+        ((EvolvableBitstring) firstChild).inherit(this, (EvolvableBitstring) other, crossoverIndex);
+        ((EvolvableBitstring) secondChild).inherit((EvolvableBitstring) other, this, crossoverIndex);
+        return true;
+    }
+
+    private void inherit(EvolvableBitstring mother, EvolvableBitstring father, int crossoverIndex) {
+        this.rand = mother.rand;
+        this.size = mother.size;
+        this.genome.clear();
+        this.genome.addAll(mother.genome().subList(0, crossoverIndex));
+        this.genome.addAll(father.genome().subList(crossoverIndex, this.size));
+
+        this.ones = (int) DeltaEvaluable.crossoverFitness(mother, father, crossoverIndex, this.size);
+        this.assignFitness((double) this.ones / this.size);
+    }
+
     @Override
     public void mutate(double mutationRate) {
-        for (int gene = 0; gene < this.size; gene++) {
-            if (this.rand.nextDouble() < mutationRate) {
+        this.mutate(mutationRate, this.rand);
+    }
+
+    @Override
+    public void mutate(double mutationRate, Random rand) {
+        int words = (this.size + 63) >>> 6;
+        long[] mask = MASK.get();
+        if (mask.length < words) {
+            mask = new long[words];
+            MASK.set(mask);
+        }
+        GeneKernels.bitFlipMask(mask, this.size, mutationRate, rand);
+
+        int[] flipped = FLIPPED.get();
+        int flips = 0;
+        for (int word = 0; word < words; word++) {
+            for (long bits = mask[word]; bits != 0; bits &= bits - 1) {
+                int gene = (word << 6) + Long.numberOfTrailingZeros(bits);
                 this.genome.set(gene, this.genome.get(gene) ^ 1);
+                if (flips == flipped.length) {
+                    flipped = Arrays.copyOf(flipped, flips << 1);
+                    FLIPPED.set(flipped);
+                }
+                flipped[flips++] = gene;
             }
         }
 
-        this.calculateFitness();
-        
+        this.updateFitness(flipped, flips);
+    }
+
+    // only used by the cache and deduplication for pending genomes, which this
+    // genome never is since it evaluates eagerly
+    @Override
+    public Object contentKey() {
+        return new ArrayList<Integer>(this.genome);
+    }
+
+    @Override
+    public void copyGenesTo(double[] destination, int offset) {
+        for (int gene = 0; gene < this.size; gene++) {
+            destination[offset + gene] = this.genome.get(gene);
+        }
     }
 
     @Override
@@ -0,0 +1,64 @@
+package Example;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+import ga.GenomeCodec;
+
+/**
+ * encodes an EvolvableBitstring as its length followed by its bits, 8 to a byte
+ *
+ * the length read is not trusted: the genes only grow as bytes arrive, and a
+ * codec made for one genome length rejects any other
+ */
+public class EvolvableBitstringCodec implements GenomeCodec<EvolvableBitstring> {
+    // genes allocated before any have been read
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int genomeLength;
+
+    public EvolvableBitstringCodec() {
+        this(-1);
+    }
+
+    /**
+     * ensures: instantiates a codec that only reads bitstrings of the given
+     * length
+     *
+     * @param genomeLength the number of bits every genome read must have, or -1
+     *                     for any
+     */
+    public EvolvableBitstringCodec(int genomeLength) {
+        this.genomeLength = genomeLength;
+    }
+
+    @Override
+    public void write(EvolvableBitstring genome, DataOutput out) throws IOException {
+        ArrayList<Integer> genes = genome.genome();
+        out.writeInt(genes.size());
+        for (int start = 0; start < genes.size(); start += 8) {
+            int packed = 0;
+            for (int bit = 0; bit < 8 && start + bit < genes.size(); bit++) {
+                packed |= genes.get(start + bit) << bit;
+            }
+            out.writeByte(packed);
+        }
+    }
+
+    @Override
+    public EvolvableBitstring read(DataInput in, Random rand) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || (this.genomeLength >= 0 && length != this.genomeLength)) {
+            throw new IOException("Invalid bitstring length " + length);
+        }
+        ArrayList<Integer> genes = new ArrayList<Integer>(Math.min(length, INITIAL_CAPACITY));
+        for (int start = 0; start < length; start += 8) {
+            int packed = in.readUnsignedByte();
+            for (int bit = 0; bit < 8 && start + bit < length; bit++) {
+                genes.add((packed >>> bit) & 1);
+            }
+        }
+        return new EvolvableBitstring(genes, rand);
+    }
+}
@@ -1,8 +1,14 @@
 package Example;
 import ga.GeneticAlgorithm;
+import ga.BinaryLog;
+import ga.BinaryLogWriter;
+import ga.BinaryLogger;
 import ga.CSVLogger;
-import ga.PropParser;
+import ga.GAConfig;
 import ga.Logger;
+import ga.PopulationStatistics;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Random;
 import java.util.Arrays;
@@ -12,7 +18,8 @@ public class Main {
     private static final String GA_CONFIG_FILE = "src/Example/properties/geneticAlgorithm.properties";
     private static final String MAIN_CONFIG_FILE = "src/Example/properties/bitstring.properties";
 
-    //private static final String ALLELE_FREQ_FILENAME = "AlleleFrequency.csv";
+    // binary, convert with java ga.BinaryLogToCSV for the csv tools
+    private static final String ALLELE_FREQ_FILENAME = "AlleleFrequency.galog";
     private static final String POPULATION_FITNESS_FILENAME = "PopulationFitness.csv";
 
     private static int GENOME_LENGTH;
@@ -22,16 +29,17 @@ public class Main {
     private static Random RAND;
     private static String CSV_LOGS_PATH;
     private static CSVLogger LOGGER;
-
-    public static void main(String[] args) {
-        PropParser.load(MAIN_CONFIG_FILE);
-        GENOME_LENGTH = Integer.parseInt(PropParser.getProperty("genome.length"));
-        POPULATION_SIZE = Integer.parseInt(PropParser.getProperty("population.size"));
-        GENERATIONS = Integer.parseInt(PropParser.getProperty("generations"));
-        SEED = Integer.parseInt(PropParser.getProperty("seed"));
+    private static BinaryLogWriter ALLELE_FREQ_LOG;
+
+    public static void main(String[] args) throws IOException {
+        GAConfig settings = GAConfig.load(MAIN_CONFIG_FILE);
+        GENOME_LENGTH = Integer.parseInt(settings.get("genome.length"));
+        POPULATION_SIZE = Integer.parseInt(settings.get("population.size"));
+        GENERATIONS = Integer.parseInt(settings.get("generations"));
+        SEED = Integer.parseInt(settings.get("seed"));
         RAND = new Random(SEED);
-        CSV_LOGS_PATH = PropParser.getProperty("logs.path").trim();
-        LOGGER = new CSVLogger(CSV_LOGS_PATH);
+        CSV_LOGS_PATH = settings.get("logs.path").trim();
+        LOGGER = new CSVLogger(CSV_LOGS_PATH, 1024);
 
         ArrayList<EvolvableBitstring> population = generateRandomPopulation(POPULATION_SIZE);
 
@@ -46,6 +54,7 @@ public class Main {
         System.out.println(ga.fittestGenome().fitness());
 
         LOGGER.closeAll();
+        ALLELE_FREQ_LOG.close();
 
     }
 
@@ -58,59 +67,47 @@ public class Main {
         return population;
     }
 
-    public static ArrayList<Logger<EvolvableBitstring>> createLoggers() {
+    public static ArrayList<Logger<EvolvableBitstring>> createLoggers() throws IOException {
         String filePrefix = "Seed" + Integer.toString(SEED) + "_";
 
-        // String alleleFreqFile = filePrefix + ALLELE_FREQ_FILENAME;
-        // ArrayList<String> alleleFreqHeaders = new ArrayList<String>(GENOME_LENGTH + 1);
-        // alleleFreqHeaders.add("Generation");
-        // for(int i = 0; i < GENOME_LENGTH; i++) {
-        //     alleleFreqHeaders.add("Allele" + i);
-        // }
-        // Logger<EvolvableBitstring> alleleFreq = new Logger<EvolvableBitstring>(alleleFreqFile, LOGGER, alleleFreqHeaders, Main::logAlleleFreq);
+        String alleleFreqFile = filePrefix + ALLELE_FREQ_FILENAME;
+        String[] alleleFreqHeaders = new String[GENOME_LENGTH + 1];
+        BinaryLog.ColumnType[] alleleFreqTypes = new BinaryLog.ColumnType[GENOME_LENGTH + 1];
+        alleleFreqHeaders[0] = "Generation";
+        alleleFreqTypes[0] = BinaryLog.ColumnType.INT;
+        for(int i = 0; i < GENOME_LENGTH; i++) {
+            alleleFreqHeaders[i + 1] = "Allele" + i;
+            alleleFreqTypes[i + 1] = BinaryLog.ColumnType.DOUBLE;
+        }
+        ALLELE_FREQ_LOG = new BinaryLogWriter(Path.of(CSV_LOGS_PATH, alleleFreqFile), alleleFreqHeaders, alleleFreqTypes);
+        Logger<EvolvableBitstring> alleleFreq = new BinaryLogger<EvolvableBitstring>(ALLELE_FREQ_LOG, Main::logAlleleFreq);
 
         String populationFitnessFile = filePrefix + POPULATION_FITNESS_FILENAME;
         ArrayList<String> populationFitnessHeaders = new ArrayList<String>(Arrays.asList("Generation", "Max Fitness", "Avg Fitness", "Min Fitness"));
         Logger<EvolvableBitstring> populationFitness = new Logger<EvolvableBitstring>(populationFitnessFile, LOGGER, populationFitnessHeaders, Main::logPopulationFitness);
 
-        return new ArrayList<Logger<EvolvableBitstring>>(Arrays.asList(populationFitness));
+        return new ArrayList<Logger<EvolvableBitstring>>(Arrays.asList(alleleFreq, populationFitness));
     }
 
-    // private static void logAlleleFreq(CSVLogger logger, String filename, ArrayList<EvolvableBitstring> population,
-    //         int generation) {
-    //     StringBuilder row = new StringBuilder();
-    //     row.append(generation + ",");
-    //     for (int allele = 0; allele < GENOME_LENGTH; allele++) {
-    //         double total = 0;
-    //         for (EvolvableBitstring genome : population) {
-    //             total += genome.genome().get(allele);
-    //         }
-    //         row.append(total / GENOME_LENGTH + ",");
-    //     }
-    //     logger.appendRowToFile(filename, row.toString());
-    // }
+    private static void logAlleleFreq(BinaryLogWriter writer, ArrayList<EvolvableBitstring> population,
+            int generation) {
+        writer.setInt(0, generation);
+        for (int allele = 0; allele < GENOME_LENGTH; allele++) {
+            double total = 0;
+            for (EvolvableBitstring genome : population) {
+                total += genome.genome().get(allele);
+            }
+            writer.setDouble(allele + 1, total / population.size());
+        }
+    }
 
     public static void logPopulationFitness(CSVLogger logger, String filename,
             ArrayList<EvolvableBitstring> population,
-            int generation) {
+            int generation, PopulationStatistics statistics) {
 
         StringBuilder row = new StringBuilder();
         row.append(generation + ",");
-        double max = population.get(0).fitness();
-        double min = population.get(0).fitness();
-        double total = 0;
-
-        for (EvolvableBitstring genome : population) {
-            if (max < genome.fitness()) {
-                max = genome.fitness();
-            }
-            if (min > genome.fitness()) {
-                min = genome.fitness();
-            }
-            total += genome.fitness();
-        }
-
-        row.append(max + "," + total / population.size() + "," + min + ",");
+        row.append(statistics.max() + "," + statistics.mean() + "," + statistics.min() + ",");
         logger.appendRowToFile(filename, row.toString());
     }
 }
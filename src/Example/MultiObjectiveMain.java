@@ -0,0 +1,46 @@
+package Example;
+import ga.CSVLogger;
+import ga.GAConfig;
+import ga.Logger;
+import ga.MultiObjectiveEvolution;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * evolves the trade-offs of the ZDT1 benchmark in one run, writing the final
+ * non-dominated genomes to src/data/ParetoFront.csv
+ */
+public class MultiObjectiveMain {
+
+    private static final String GA_CONFIG_FILE = "src/Example/properties/geneticAlgorithm.properties";
+    private static final String MAIN_CONFIG_FILE = "src/Example/properties/bitstring.properties";
+    private static final String FRONT_FILENAME = "ParetoFront.csv";
+    private static final int GENOME_LENGTH = 30;
+
+    public static void main(String[] args) throws FileNotFoundException {
+        GAConfig settings = GAConfig.load(MAIN_CONFIG_FILE);
+        int populationSize = Integer.parseInt(settings.get("population.size"));
+        int generations = Integer.parseInt(settings.get("generations"));
+        Random rand = new Random(Integer.parseInt(settings.get("seed")));
+        CSVLogger logger = new CSVLogger(settings.get("logs.path"));
+
+        ArrayList<TradeOffVector> population = new ArrayList<TradeOffVector>(populationSize);
+        for (int i = 0; i < populationSize; i++) {
+            population.add(new TradeOffVector(GENOME_LENGTH, rand));
+        }
+        MultiObjectiveEvolution<TradeOffVector> evolution = new MultiObjectiveEvolution<TradeOffVector>(
+                GA_CONFIG_FILE, population, rand, new ArrayList<Logger<TradeOffVector>>());
+
+        ArrayList<TradeOffVector> front = evolution.run(generations);
+        logger.createNewFile(FRONT_FILENAME, new ArrayList<String>(List.of("f1", "f2")));
+        for (TradeOffVector genome : front) {
+            double[] objectives = genome.objectives();
+            logger.appendRowToFile(FRONT_FILENAME, -objectives[0] + "," + -objectives[1]);
+        }
+        logger.closeAll();
+        System.out.println("Evaluations: " + evolution.evaluations());
+        System.out.println("Non-dominated genomes: " + front.size());
+    }
+}
@@ -0,0 +1,36 @@
+package Example;
+import ga.GAConfig;
+import ga.Logger;
+import ga.SteadyStateEvolution;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * evolves the bitstrings in steady state on every core, running as many
+ * evaluations as the generational example would over its generations
+ */
+public class SteadyStateMain {
+
+    private static final String GA_CONFIG_FILE = "src/Example/properties/geneticAlgorithm.properties";
+    private static final String MAIN_CONFIG_FILE = "src/Example/properties/bitstring.properties";
+
+    public static void main(String[] args) {
+        GAConfig settings = GAConfig.load(MAIN_CONFIG_FILE);
+        int genomeLength = Integer.parseInt(settings.get("genome.length"));
+        int populationSize = Integer.parseInt(settings.get("population.size"));
+        int generations = Integer.parseInt(settings.get("generations"));
+        Random rand = new Random(Integer.parseInt(settings.get("seed")));
+
+        ArrayList<EvolvableBitstring> population = new ArrayList<EvolvableBitstring>(populationSize);
+        for (int i = 0; i < populationSize; i++) {
+            population.add(new EvolvableBitstring(genomeLength, rand));
+        }
+        SteadyStateEvolution<EvolvableBitstring> evolution = new SteadyStateEvolution<EvolvableBitstring>(
+                GA_CONFIG_FILE, population, rand, new ArrayList<Logger<EvolvableBitstring>>());
+
+        EvolvableBitstring fittest = evolution.run((long) generations * populationSize);
+        System.out.println("Evaluations: " + evolution.evaluations());
+        System.out.println(fittest.toString());
+        System.out.println(fittest.fitness());
+    }
+}
@@ -0,0 +1,42 @@
+package Example;
+import ga.CSVLogger;
+import ga.GAConfig;
+import ga.ParameterSweep;
+import java.util.ArrayList;
+
+/**
+ * tunes the bitstring example by running every combination of a few mutation
+ * rates, elite counts and selection methods over several seeds in one JVM,
+ * writing one row per run to src/data/Sweep.csv
+ */
+public class SweepMain {
+
+    private static final String GA_CONFIG_FILE = "src/Example/properties/geneticAlgorithm.properties";
+    private static final String MAIN_CONFIG_FILE = "src/Example/properties/bitstring.properties";
+    private static final String SWEEP_FILENAME = "Sweep.csv";
+
+    public static void main(String[] args) {
+        GAConfig settings = GAConfig.load(MAIN_CONFIG_FILE);
+        int genomeLength = Integer.parseInt(settings.get("genome.length"));
+        int generations = Integer.parseInt(settings.get("generations"));
+        CSVLogger logger = new CSVLogger(settings.get("logs.path"));
+
+        ParameterSweep<EvolvableBitstring> sweep = new ParameterSweep<EvolvableBitstring>(
+                GAConfig.load(GA_CONFIG_FILE), (config, rand) -> {
+                    int populationSize = config.getInt("population.size", 100);
+                    ArrayList<EvolvableBitstring> population = new ArrayList<EvolvableBitstring>(populationSize);
+                    for (int i = 0; i < populationSize; i++) {
+                        population.add(new EvolvableBitstring(genomeLength, rand));
+                    }
+                    return population;
+                })
+                .vary("mutation.rate", "0.005", "0.01", "0.02")
+                .vary("elite.count", "1", "5")
+                .vary("selection.method", "truncation", "tournament", "ranked")
+                .seeds(1, 2, 3, 4, 5);
+
+        System.out.println("Running " + sweep.size() + " runs");
+        sweep.run(generations, Runtime.getRuntime().availableProcessors(), logger, SWEEP_FILENAME);
+        logger.closeAll();
+    }
+}
@@ -0,0 +1,38 @@
+package Example;
+import java.util.Random;
+import ga.MultiObjective;
+import ga.RealValuedGenome;
+
+/**
+ * the ZDT1 benchmark, thirty genes in [0, 1] and two objectives to minimise
+ * whose trade-offs form the convex curve f2 = 1 - sqrt(f1) once the genes after
+ * the first are all 0
+ */
+public class TradeOffVector extends RealValuedGenome implements MultiObjective {
+    private double[] objectives;
+
+    public TradeOffVector(int genomeLength, Random rand) {
+        super(genomeLength, 0.0, 1.0, rand);
+        this.mutationEta = 20.0;
+    }
+
+    @Override
+    protected double fitnessOf(double[] genes) {
+        double f1 = genes[0];
+        double sum = 0;
+        for (int gene = 1; gene < genes.length; gene++) {
+            sum += genes[gene];
+        }
+        double g = 1.0 + 9.0 * sum / (genes.length - 1);
+        double f2 = g * (1.0 - Math.sqrt(f1 / g));
+        // negated, as objectives are maximised. a new array since clones share this field
+        this.objectives = new double[] { -f1, -f2 };
+        return -(f1 + f2);
+    }
+
+    @Override
+    public double[] objectives() {
+        this.evaluate();
+        return this.objectives;
+    }
+}
@@ -0,0 +1,84 @@
+package ga;
+
+import java.util.Random;
+
+/**
+ * Vose's alias method: after an O(n) build, draws an index with probability
+ * proportional to its weight in O(1)
+ *
+ * the arrays are reused between builds, so rebuilding every generation does not
+ * allocate once the table has reached the population size
+ */
+class AliasTable {
+    private double[] probability = new double[0];
+    private int[] alias = new int[0];
+    private int[] small = new int[0];
+    private int[] large = new int[0];
+    private int size;
+
+    /**
+     * ensures: builds the table for the first n weights
+     * requires: the weights are non-negative, if they are all zero every index is
+     * equally likely
+     *
+     * @param weights the weight of each index
+     * @param n       the number of weights to use
+     */
+    void build(double[] weights, int n) {
+        if (this.probability.length < n) {
+            this.probability = new double[n];
+            this.alias = new int[n];
+            this.small = new int[n];
+            this.large = new int[n];
+        }
+        this.size = n;
+
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += weights[i];
+        }
+
+        int smallCount = 0, largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            // scale so the average weight is 1
+            this.probability[i] = total > 0 ? weights[i] * n / total : 1.0;
+            this.alias[i] = i;
+            if (this.probability[i] < 1.0) {
+                this.small[smallCount++] = i;
+            } else {
+                this.large[largeCount++] = i;
+            }
+        }
+
+        // pair each underfull column with an overfull one that tops it up
+        while (smallCount > 0 && largeCount > 0) {
+            int less = this.small[--smallCount];
+            int more = this.large[--largeCount];
+            this.alias[less] = more;
+            this.probability[more] += this.probability[less] - 1.0;
+            if (this.probability[more] < 1.0) {
+                this.small[smallCount++] = more;
+            } else {
+                this.large[largeCount++] = more;
+            }
+        }
+        // whatever is left is full up to rounding error
+        while (largeCount > 0) {
+            this.probability[this.large[--largeCount]] = 1.0;
+        }
+        while (smallCount > 0) {
+            this.probability[this.small[--smallCount]] = 1.0;
+        }
+    }
+
+    /**
+     * ensures: draws an index with probability proportional to its weight
+     *
+     * @param rand the source of randomness
+     * @return the index drawn
+     */
+    int sample(Random rand) {
+        int column = rand.nextInt(this.size);
+        return rand.nextDouble() < this.probability[column] ? column : this.alias[column];
+    }
+}
@@ -0,0 +1,25 @@
+package ga;
+
+/**
+ * evaluates many genomes in one call from a dense matrix of their genes, so a
+ * fitness function can be written as tight loops over primitive arrays or handed
+ * to an external scorer in one piece
+ *
+ * the genomes evaluated must implement Genome.copyGenesTo and all have the same
+ * size
+ */
+@FunctionalInterface
+public interface BatchEvaluator {
+
+    /**
+     * ensures: writes the fitness of every row into the fitness array
+     * requires: does not keep references to the arrays, they are reused
+     *
+     * @param genes   the genes of genome r in genes[r * columns] to
+     *                genes[r * columns + columns - 1]
+     * @param rows    the number of genomes
+     * @param columns the number of genes of each genome
+     * @param fitness the array the fitness of genome r is stored at index r of
+     */
+    void evaluate(double[] genes, int rows, int columns, double[] fitness);
+}
@@ -0,0 +1,102 @@
+package ga;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * the layout and column types shared by BinaryLogWriter and BinaryLogReader
+ *
+ * a log starts with a header:
+ * magic, version, column count, rows per block, row count, data offset, then
+ * the type and name of every column
+ *
+ * the rows follow in blocks of a fixed number of rows. within a block each
+ * column is stored contiguously, so reading one column touches only its own
+ * slice of every block. the last block is always allocated in full and the row
+ * count in the header says how much of it is used
+ */
+public final class BinaryLog {
+    static final int MAGIC = 0x47414C47; // "GALG"
+    static final int VERSION = 1;
+    static final int ROW_COUNT_OFFSET = 16;
+    static final int HEADER_FIXED_BYTES = 32;
+    // aim for blocks of about a megabyte
+    static final int TARGET_BLOCK_BYTES = 1 << 20;
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private BinaryLog() {
+    }
+
+    /**
+     * the fixed width numeric types a column can hold
+     */
+    public enum ColumnType {
+        INT(4), LONG(8), FLOAT(4), DOUBLE(8);
+
+        private final int width;
+
+        ColumnType(int width) {
+            this.width = width;
+        }
+
+        /**
+         * ensures: returns the number of bytes one value takes
+         *
+         * @return the width of the type in bytes
+         */
+        public int width() {
+            return this.width;
+        }
+    }
+
+    /**
+     * ensures: returns the number of rows to put in each block for rows of the
+     * given width
+     *
+     * @param rowBytes the width of a row in bytes
+     * @return the rows per block
+     */
+    static int rowsPerBlock(int rowBytes) {
+        return Math.max(64, TARGET_BLOCK_BYTES / Math.max(1, rowBytes));
+    }
+
+    /**
+     * ensures: writes the header at the start of the channel and returns the
+     * offset of the first block
+     *
+     * @param channel      the channel of the log file
+     * @param names        the column names
+     * @param types        the column types
+     * @param rowsPerBlock the number of rows in each block
+     * @return the offset of the first block
+     * @throws IOException if the header cannot be written
+     */
+    static long writeHeader(FileChannel channel, String[] names, ColumnType[] types, int rowsPerBlock)
+            throws IOException {
+        byte[][] encodedNames = new byte[names.length][];
+        int headerBytes = HEADER_FIXED_BYTES;
+        for (int column = 0; column < names.length; column++) {
+            encodedNames[column] = names[column].getBytes(StandardCharsets.UTF_8);
+            headerBytes += 1 + 4 + encodedNames[column].length;
+        }
+        // align the data to 8 bytes so every value is naturally aligned
+        long dataOffset = (headerBytes + 7) & ~7L;
+
+        ByteBuffer header = ByteBuffer.allocate((int) dataOffset).order(ORDER);
+        header.putInt(MAGIC).putInt(VERSION).putInt(names.length).putInt(rowsPerBlock);
+        header.putLong(0L).putLong(dataOffset);
+        for (int column = 0; column < names.length; column++) {
+            header.put((byte) types[column].ordinal());
+            header.putInt(encodedNames[column].length).put(encodedNames[column]);
+        }
+        header.rewind();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+        return dataOffset;
+    }
+}
@@ -0,0 +1,245 @@
+package ga;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import ga.BinaryLog.ColumnType;
+
+/**
+ * reads a log written by BinaryLogWriter by memory mapping it
+ */
+public class BinaryLogReader implements AutoCloseable {
+    private FileChannel channel;
+    private String[] names;
+    private ColumnType[] types;
+    private long rows;
+    private int rowsPerBlock;
+    private long dataOffset;
+    private long blockBytes;
+    private long[] columnOffsets;
+
+    // the most recently used block, which serves sequential row access
+    private MappedByteBuffer block;
+    private long blockIndex = -1;
+
+    /**
+     * ensures: opens a log and reads its header
+     *
+     * @param file the path of the log file
+     * @throws IOException if the file cannot be read or is not a binary log
+     */
+    public BinaryLogReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+
+        ByteBuffer fixed = this.read(0, BinaryLog.HEADER_FIXED_BYTES);
+        if (fixed.getInt() != BinaryLog.MAGIC) {
+            this.channel.close();
+            throw new IOException(file + " is not a binary log");
+        }
+        int version = fixed.getInt();
+        if (version != BinaryLog.VERSION) {
+            this.channel.close();
+            throw new IOException(file + " has version " + version + ", only version " + BinaryLog.VERSION
+                    + " can be read");
+        }
+        int columns = fixed.getInt();
+        this.rowsPerBlock = fixed.getInt();
+        this.rows = fixed.getLong();
+        this.dataOffset = fixed.getLong();
+
+        ByteBuffer header = this.read(BinaryLog.HEADER_FIXED_BYTES, (int) this.dataOffset - BinaryLog.HEADER_FIXED_BYTES);
+        this.names = new String[columns];
+        this.types = new ColumnType[columns];
+        this.columnOffsets = new long[columns];
+        long offset = 0;
+        for (int column = 0; column < columns; column++) {
+            this.types[column] = ColumnType.values()[header.get()];
+            byte[] name = new byte[header.getInt()];
+            header.get(name);
+            this.names[column] = new String(name, StandardCharsets.UTF_8);
+            this.columnOffsets[column] = offset;
+            offset += (long) this.types[column].width() * this.rowsPerBlock;
+        }
+        this.blockBytes = offset;
+    }
+
+    /**
+     * ensures: returns the number of rows in the log
+     *
+     * @return the row count
+     */
+    public long rowCount() {
+        return this.rows;
+    }
+
+    /**
+     * ensures: returns the number of columns in the log
+     *
+     * @return the column count
+     */
+    public int columnCount() {
+        return this.names.length;
+    }
+
+    /**
+     * ensures: returns the name of a column
+     *
+     * @param column the index of the column
+     * @return the name of the column
+     */
+    public String columnName(int column) {
+        return this.names[column];
+    }
+
+    /**
+     * ensures: returns the type of a column
+     *
+     * @param column the index of the column
+     * @return the type of the column
+     */
+    public ColumnType columnType(int column) {
+        return this.types[column];
+    }
+
+    /**
+     * ensures: returns the index of the column with the given name
+     *
+     * @param name the name of the column
+     * @return the index of the column, or -1 if there is none
+     */
+    public int columnIndex(String name) {
+        for (int column = 0; column < this.names.length; column++) {
+            if (this.names[column].equals(name)) {
+                return column;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * ensures: returns a value of any type widened to a double
+     *
+     * @param row    the index of the row
+     * @param column the index of the column
+     * @return the value
+     * @throws IOException if the block holding the row cannot be mapped
+     */
+    public double getDouble(long row, int column) throws IOException {
+        int position = this.position(row, column);
+        switch (this.types[column]) {
+            case INT:
+                return this.block.getInt(position);
+            case LONG:
+                return this.block.getLong(position);
+            case FLOAT:
+                return this.block.getFloat(position);
+            default:
+                return this.block.getDouble(position);
+        }
+    }
+
+    /**
+     * ensures: returns the value of an INT or LONG column
+     *
+     * @param row    the index of the row
+     * @param column the index of the column
+     * @return the value
+     * @throws IOException if the block holding the row cannot be mapped
+     */
+    public long getLong(long row, int column) throws IOException {
+        int position = this.position(row, column);
+        switch (this.types[column]) {
+            case INT:
+                return this.block.getInt(position);
+            case LONG:
+                return this.block.getLong(position);
+            default:
+                throw new IllegalArgumentException("Column " + column + " holds " + this.types[column]
+                        + ", which is not an integer type");
+        }
+    }
+
+    /**
+     * ensures: returns every value of a column widened to doubles
+     *
+     * @param column the index of the column
+     * @return the values of the column in row order
+     * @throws IOException if the log cannot be read
+     */
+    public double[] readColumn(int column) throws IOException {
+        if (this.rows > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The log has too many rows to read a column into one array");
+        }
+        double[] values = new double[(int) this.rows];
+        int width = this.types[column].width();
+        for (long start = 0; start < this.rows; start += this.rowsPerBlock) {
+            int count = (int) Math.min(this.rowsPerBlock, this.rows - start);
+            // only the slice of the block holding this column is read
+            ByteBuffer slice = this.read(this.dataOffset + (start / this.rowsPerBlock) * this.blockBytes
+                    + this.columnOffsets[column], count * width);
+            for (int i = 0; i < count; i++) {
+                switch (this.types[column]) {
+                    case INT:
+                        values[(int) start + i] = slice.getInt();
+                        break;
+                    case LONG:
+                        values[(int) start + i] = slice.getLong();
+                        break;
+                    case FLOAT:
+                        values[(int) start + i] = slice.getFloat();
+                        break;
+                    default:
+                        values[(int) start + i] = slice.getDouble();
+                        break;
+                }
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.block = null;
+        this.channel.close();
+    }
+
+    /**
+     * ensures: maps the block holding the row and returns the position of the
+     * value within it
+     *
+     * @param row    the index of the row
+     * @param column the index of the column
+     * @return the byte offset into the current block
+     * @throws IOException if the block cannot be mapped
+     */
+    private int position(long row, int column) throws IOException {
+        if (row < 0 || row >= this.rows) {
+            throw new IndexOutOfBoundsException("Row " + row + " is outside a log of " + this.rows + " rows");
+        }
+        long blockIndex = row / this.rowsPerBlock;
+        if (blockIndex != this.blockIndex) {
+            this.block = this.channel.map(FileChannel.MapMode.READ_ONLY,
+                    this.dataOffset + blockIndex * this.blockBytes, this.blockBytes);
+            this.block.order(BinaryLog.ORDER);
+            this.blockIndex = blockIndex;
+        }
+        return (int) (this.columnOffsets[column] + (row % this.rowsPerBlock) * this.types[column].width());
+    }
+
+    /**
+     * ensures: maps a region of the file for reading
+     *
+     * @param offset the start of the region
+     * @param length the number of bytes
+     * @return the mapped region
+     * @throws IOException if the region cannot be mapped
+     */
+    private ByteBuffer read(long offset, int length) throws IOException {
+        return this.channel.map(FileChannel.MapMode.READ_ONLY, offset, length).order(BinaryLog.ORDER);
+    }
+}
@@ -0,0 +1,63 @@
+package ga;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+/**
+ * converts a binary log into a csv file for tools that expect the csv logs, such
+ * as the plotting scripts
+ *
+ * usage: java ga.BinaryLogToCSV input.galog output.csv
+ */
+public class BinaryLogToCSV {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: java ga.BinaryLogToCSV <input log> <output csv>");
+            System.exit(1);
+        }
+        convert(Path.of(args[0]), new File(args[1]));
+    }
+
+    /**
+     * ensures: writes every row of the binary log to a csv file with the column
+     * names as headers
+     *
+     * @param log the binary log to read
+     * @param csv the csv file to write
+     * @throws IOException if either file cannot be accessed
+     */
+    public static void convert(Path log, File csv) throws IOException {
+        try (BinaryLogReader reader = new BinaryLogReader(log)) {
+            File directory = csv.getAbsoluteFile().getParentFile();
+            CSVLogger logger = new CSVLogger(directory.getPath());
+
+            ArrayList<String> headers = new ArrayList<String>(reader.columnCount());
+            for (int column = 0; column < reader.columnCount(); column++) {
+                headers.add(reader.columnName(column));
+            }
+            logger.createNewFile(csv.getName(), headers);
+
+            StringBuilder row = new StringBuilder();
+            for (long index = 0; index < reader.rowCount(); index++) {
+                row.setLength(0);
+                for (int column = 0; column < reader.columnCount(); column++) {
+                    switch (reader.columnType(column)) {
+                        case INT:
+                        case LONG:
+                            row.append(reader.getLong(index, column));
+                            break;
+                        default:
+                            row.append(reader.getDouble(index, column));
+                            break;
+                    }
+                    row.append(',');
+                }
+                logger.appendRowToFile(csv.getName(), row.toString());
+            }
+            logger.closeAll();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package ga;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import ga.BinaryLog.ColumnType;
+
+/**
+ * writes rows of typed numeric columns to a memory mapped binary log
+ *
+ * values are set column by column on the current row, which endRow then
+ * commits. a block of rows is mapped at a time, so writing a value is a single
+ * store into the page cache and no text is ever formatted
+ *
+ * the row count in the header is brought up to date whenever a block is
+ * finished, so the log of a run that dies before close still reads back every
+ * finished block, losing only the rows of the last one
+ */
+public class BinaryLogWriter implements AutoCloseable {
+    private FileChannel channel;
+    private ColumnType[] types;
+    private long dataOffset;
+    private int rowsPerBlock;
+    private long blockBytes;
+    // the offset of each column within a block
+    private long[] columnOffsets;
+
+    private MappedByteBuffer block;
+    private long rows;
+    private int rowInBlock;
+
+    /**
+     * ensures: creates (or replaces) a log file with the given columns
+     *
+     * @param file  the path of the log file
+     * @param names the name of each column
+     * @param types the type of each column
+     * @throws IOException if the file cannot be created
+     */
+    public BinaryLogWriter(Path file, String[] names, ColumnType[] types) throws IOException {
+        if (names.length != types.length) {
+            throw new IllegalArgumentException(names.length + " column names were given for " + types.length
+                    + " column types");
+        }
+        this.types = types.clone();
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        int rowBytes = 0;
+        for (ColumnType type : types) {
+            rowBytes += type.width();
+        }
+        this.rowsPerBlock = BinaryLog.rowsPerBlock(rowBytes);
+        this.columnOffsets = new long[types.length];
+        long offset = 0;
+        for (int column = 0; column < types.length; column++) {
+            this.columnOffsets[column] = offset;
+            offset += (long) types[column].width() * this.rowsPerBlock;
+        }
+        this.blockBytes = offset;
+
+        this.dataOffset = BinaryLog.writeHeader(this.channel, names, types, this.rowsPerBlock);
+        this.rows = 0;
+        this.rowInBlock = 0;
+        this.mapBlock(0);
+    }
+
+    /**
+     * ensures: returns the number of rows committed so far
+     *
+     * @return the row count
+     */
+    public long rowCount() {
+        return this.rows;
+    }
+
+    /**
+     * ensures: sets an INT column of the current row
+     *
+     * @param column the index of the column
+     * @param value  the value to store
+     */
+    public void setInt(int column, int value) {
+        this.block.putInt(this.position(column, ColumnType.INT), value);
+    }
+
+    /**
+     * ensures: sets a LONG column of the current row
+     *
+     * @param column the index of the column
+     * @param value  the value to store
+     */
+    public void setLong(int column, long value) {
+        this.block.putLong(this.position(column, ColumnType.LONG), value);
+    }
+
+    /**
+     * ensures: sets a FLOAT column of the current row
+     *
+     * @param column the index of the column
+     * @param value  the value to store
+     */
+    public void setFloat(int column, float value) {
+        this.block.putFloat(this.position(column, ColumnType.FLOAT), value);
+    }
+
+    /**
+     * ensures: sets a DOUBLE column of the current row
+     *
+     * @param column the index of the column
+     * @param value  the value to store
+     */
+    public void setDouble(int column, double value) {
+        this.block.putDouble(this.position(column, ColumnType.DOUBLE), value);
+    }
+
+    /**
+     * ensures: commits the current row and starts the next one, columns that were
+     * not set hold zero
+     *
+     * @throws IOException if the next block cannot be mapped
+     */
+    public void endRow() throws IOException {
+        this.rows++;
+        if (++this.rowInBlock == this.rowsPerBlock) {
+            this.mapBlock(this.rows / this.rowsPerBlock);
+            this.rowInBlock = 0;
+        }
+    }
+
+    /**
+     * ensures: records the row count in the header, flushes every block to disk
+     * and closes the file
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (!this.channel.isOpen()) {
+            return;
+        }
+        this.block.force();
+        this.writeRowCount();
+        this.channel.force(true);
+        this.channel.close();
+    }
+
+    /**
+     * ensures: maps the given block, growing the file as needed
+     *
+     * @param blockIndex the index of the block
+     * @throws IOException if the block cannot be mapped
+     */
+    private void mapBlock(long blockIndex) throws IOException {
+        if (this.block != null) {
+            // hand the finished block to the OS now rather than when it is evicted
+            this.block.force();
+            this.writeRowCount();
+        }
+        this.block = this.channel.map(FileChannel.MapMode.READ_WRITE,
+                this.dataOffset + blockIndex * this.blockBytes, this.blockBytes);
+        this.block.order(BinaryLog.ORDER);
+    }
+
+    /**
+     * ensures: records the rows committed so far in the header
+     *
+     * @throws IOException if the header cannot be written
+     */
+    private void writeRowCount() throws IOException {
+        ByteBuffer rowCount = ByteBuffer.allocate(8).order(BinaryLog.ORDER).putLong(0, this.rows);
+        this.channel.write(rowCount, BinaryLog.ROW_COUNT_OFFSET);
+    }
+
+    /**
+     * ensures: returns the position of a column of the current row within the block
+     *
+     * @param column the index of the column
+     * @param type   the type the caller is storing
+     * @return the byte offset into the block
+     */
+    private int position(int column, ColumnType type) {
+        if (this.types[column] != type) {
+            throw new IllegalArgumentException("Column " + column + " holds " + this.types[column] + ", not " + type);
+        }
+        return (int) (this.columnOffsets[column] + (long) this.rowInBlock * type.width());
+    }
+}
@@ -0,0 +1,47 @@
+package ga;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+
+/**
+ * a logger that records each generation as a row of a binary log instead of a
+ * line of csv
+ */
+public class BinaryLogger<T> extends Logger<T> {
+    private BinaryLogWriter writer;
+    private BinaryLogFunction<T> logFunction;
+
+    /**
+     * ensures: instantiates an instance of binary logger
+     *
+     * @param writer      the log to write to
+     * @param logFunction the function filling in each new row of data
+     */
+    public BinaryLogger(BinaryLogWriter writer, BinaryLogFunction<T> logFunction) {
+        super();
+        this.writer = writer;
+        this.logFunction = logFunction;
+    }
+
+    /**
+     * ensures: fills in and commits a row of the binary log
+     *
+     * @param population the current population in the GA
+     * @param generation the current generation of the GA
+     */
+    @Override
+    public void log(ArrayList<T> population, int generation) {
+        this.logFunction.log(this.writer, population, generation);
+        try {
+            this.writer.endRow();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface BinaryLogFunction<T> {
+        void log(BinaryLogWriter writer, ArrayList<T> population, int generation);
+    }
+}
@@ -1,26 +1,60 @@
 package ga;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class allows for an easy means to create CSV files and append data to them.
  * 
+ * In asynchronous mode rows are handed to a bounded queue and written in batches by a
+ * background thread, so appending a row only blocks when the writer falls a whole queue
+ * behind. Invalid rows are then reported and dropped instead of exiting, and closeAll
+ * fails once everything queued has been written.
+ * 
  * @author Jason Yoder
  *
  */
 public class CSVLogger {
 
-	private HashMap<String, PrintWriter> logFiles = new HashMap<String, PrintWriter>();
-	private HashMap<String, Integer> dataColumnMap = new HashMap<String, Integer>();
+	private static final int WRITE_BUFFER_SIZE = 1 << 16;
+	// marks the end of the queue when closing
+	private static final String[] CLOSE = new String[0];
+	// how often a producer waiting on a full queue checks the writer is still running
+	private static final long WRITER_CHECK_MS = 100;
+
+	private ConcurrentHashMap<String, PrintWriter> logFiles = new ConcurrentHashMap<String, PrintWriter>();
+	private ConcurrentHashMap<String, Integer> dataColumnMap = new ConcurrentHashMap<String, Integer>();
 	private String path;
+	private BlockingQueue<String[]> pendingRows;
+	private Thread writer;
+	private volatile int droppedRows;
 	
 	public CSVLogger(String path) {
 		this.path = path;
 	}
 
+	/**
+	 * Create a logger that writes rows on a background thread
+	 * 
+	 * @param path
+	 * @param queueCapacity the number of rows that can wait to be written before appending blocks
+	 */
+	public CSVLogger(String path, int queueCapacity) {
+		this.path = path;
+		this.pendingRows = new ArrayBlockingQueue<String[]>(queueCapacity);
+		this.writer = new Thread(this::writeRows, "CSVLogger writer");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
 	/**
 	 * Create a new file with the provided set of header column names
 	 * 
@@ -38,13 +72,15 @@ public class CSVLogger {
 				pathAsFile.mkdir();
 			}
 			
-			logFiles.put(filename, new PrintWriter( new File(path+"/"+filename)));
+			PrintWriter pw = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+					new FileOutputStream(path+"/"+filename)), WRITE_BUFFER_SIZE));
 			dataColumnMap.put(filename, columnHeaders.size() );
-			PrintWriter pw = logFiles.get(filename);
 			for (String header: columnHeaders) {
 				pw.print(header+",");
 			}
 			pw.println("");
+			// published last so the writer thread never sees a file without its header
+			logFiles.put(filename, pw);
 		}
 	}
 
@@ -67,10 +103,9 @@ public class CSVLogger {
 		//intentionally avoid the final character so that the count is consistent
 		//regardless of whether there is a trailing "," or not
 		int commas = 0;
-		for (int i=0; i<dataRow.length()-1; i++) {
-			if (dataRow.charAt(i) == ',') {
-				commas++;
-			}
+		int end = dataRow.length()-1;
+		for (int i = dataRow.indexOf(','); i >= 0 && i < end; i = dataRow.indexOf(',', i+1)) {
+			commas++;
 		}
 		if (commas + 1 != columns) {
 			System.err.println( "There are " +commas +" commas, and " + columns + " columns! There should be 1 more column than comma!"   );  
@@ -87,7 +122,14 @@ public class CSVLogger {
 	 * @param dataRow
 	 */
 	public void appendRowToFile(String filename, String dataRow) {
-		if (isValidDataRow(filename, dataRow) ) {
+		if (pendingRows != null) {
+			try {
+				enqueue(new String[] {filename, dataRow});
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Interrupted while queueing a row for " + filename, e);
+			}
+		} else if (isValidDataRow(filename, dataRow) ) {
 			PrintWriter pw = logFiles.get(filename);
 			pw.println(dataRow);
 		} else {
@@ -96,10 +138,79 @@ public class CSVLogger {
 		}
 	}
 
+	/**
+	 * Queues a row for the writer thread, waiting while the queue is full but
+	 * failing instead of waiting forever once the writer has stopped
+	 * 
+	 * @param row the file name and the row, or CLOSE
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private void enqueue(String[] row) throws InterruptedException {
+		while (!pendingRows.offer(row, WRITER_CHECK_MS, TimeUnit.MILLISECONDS)) {
+			if (!writer.isAlive()) {
+				throw new IllegalStateException("The writer thread has stopped, the logger was closed or failed");
+			}
+		}
+	}
+
+	/**
+	 * Writes queued rows in batches until the logger is closed. a row that cannot
+	 * be written is dropped and counted like an invalid row, so one bad row never
+	 * stops the writer
+	 */
+	private void writeRows() {
+		ArrayList<String[]> batch = new ArrayList<String[]>();
+		try {
+			while (true) {
+				batch.add(pendingRows.take());
+				pendingRows.drainTo(batch);
+				for (String[] pending: batch) {
+					if (pending == CLOSE) {
+						return;
+					}
+					try {
+						if (isValidDataRow(pending[0], pending[1])) {
+							logFiles.get(pending[0]).println(pending[1]);
+						} else {
+							System.err.println("Invalid Data Row for " + pending[0] + "! Dropping it...");
+							droppedRows++;
+						}
+					} catch (RuntimeException e) {
+						// most likely a file that was never created
+						System.err.println("Could not write a row to " + pending[0] + " (" + e + ")! Dropping it...");
+						droppedRows++;
+					}
+				}
+				batch.clear();
+				// only flush once the queue runs dry, under load the buffers fill up instead
+				if (pendingRows.isEmpty()) {
+					for (PrintWriter pw: logFiles.values()) {
+						pw.flush();
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
 	public void closeAll() {
+		if (writer != null) {
+			try {
+				if (writer.isAlive()) {
+					enqueue(CLOSE);
+				}
+				writer.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
 		for (PrintWriter pw: logFiles.values()) {
 			pw.close();
 		}
+		if (droppedRows > 0) {
+			throw new RuntimeException(droppedRows + " invalid data rows were dropped!");
+		}
 	}
 
 }
@@ -0,0 +1,387 @@
+package ga;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * the complete state of a GeneticAlgorithm between two generations: the
+ * generation counter, the population with its fitness, the state of the Random
+ * driving it, and what the termination criteria and hall of fame depend on:
+ * the evaluations so far, the generation of the last improvement, the time
+ * spent running, the fittest genome so far and the members of the hall of fame.
+ * with a surrogate it also holds what the surrogate learned and whether the
+ * last generation had children to screen
+ *
+ * a GeneticAlgorithm built from a checkpoint continues exactly as the one that
+ * wrote it would have, provided it is given the same config file and loggers.
+ * the file starts with a versioned header naming the codec of the genomes. the
+ * fitness cache is not part of a checkpoint, its keys have no encoding, so
+ * GeneticAlgorithm refuses to checkpoint with cache.size set
+ */
+public class Checkpoint<T extends Genome> {
+    private static final int MAGIC = 0x4741434B; // "GACK"
+    private static final int VERSION = 1;
+
+    private int generation;
+    private ArrayList<T> population;
+    private Random rand;
+    private long evaluations;
+    private int lastImprovement;
+    private long elapsedNanos;
+    private T bestSoFar;
+    private ArrayList<T> hallOfFame;
+    private boolean childrenDeferred;
+    private byte[] surrogate;
+
+    /**
+     * ensures: instantiates a checkpoint from its parts, with no evaluations,
+     * hall of fame or surrogate recorded
+     *
+     * @param generation the generation of the population
+     * @param population the evaluated genomes
+     * @param rand       the Random driving the algorithm, positioned after the
+     *                   generation
+     */
+    public Checkpoint(int generation, ArrayList<T> population, Random rand) {
+        this(generation, population, rand, 0, generation, 0, null, new ArrayList<T>(), true, null);
+    }
+
+    /**
+     * ensures: instantiates a checkpoint from its parts, including the state of
+     * the termination criteria, the hall of fame and the surrogate
+     *
+     * @param generation      the generation of the population
+     * @param population      the evaluated genomes
+     * @param rand            the Random driving the algorithm, positioned after
+     *                        the generation
+     * @param evaluations     the number of evaluations carried out so far
+     * @param lastImprovement the generation the fittest genome so far was found
+     * @param elapsedNanos    the time the algorithm has run for
+     * @param bestSoFar       the fittest genome so far, or null if not recorded
+     * @param hallOfFame      the members of the hall of fame, empty without one
+     * @param childrenDeferred whether the last generation bred children whose
+     *                         evaluation was pending
+     * @param surrogate        what the surrogate wrote, or null without one
+     */
+    public Checkpoint(int generation, ArrayList<T> population, Random rand, long evaluations, int lastImprovement,
+            long elapsedNanos, T bestSoFar, ArrayList<T> hallOfFame, boolean childrenDeferred, byte[] surrogate) {
+        this.generation = generation;
+        this.population = population;
+        this.rand = rand;
+        this.evaluations = evaluations;
+        this.lastImprovement = lastImprovement;
+        this.elapsedNanos = elapsedNanos;
+        this.bestSoFar = bestSoFar;
+        this.hallOfFame = hallOfFame;
+        this.childrenDeferred = childrenDeferred;
+        this.surrogate = surrogate;
+    }
+
+    /**
+     * ensures: returns the generation the checkpoint was taken at
+     *
+     * @return generation
+     */
+    public int generation() {
+        return this.generation;
+    }
+
+    /**
+     * ensures: returns the population of the checkpoint
+     *
+     * @return the evaluated genomes
+     */
+    public ArrayList<T> population() {
+        return this.population;
+    }
+
+    /**
+     * ensures: returns the Random of the checkpoint, which the genomes were given
+     *
+     * @return the restored Random
+     */
+    public Random rand() {
+        return this.rand;
+    }
+
+    /**
+     * ensures: returns the number of evaluations carried out before the
+     * checkpoint
+     *
+     * @return evaluations
+     */
+    public long evaluations() {
+        return this.evaluations;
+    }
+
+    /**
+     * ensures: returns the generation the fittest genome so far was found
+     *
+     * @return lastImprovement
+     */
+    public int lastImprovement() {
+        return this.lastImprovement;
+    }
+
+    /**
+     * ensures: returns the time the algorithm had run for
+     *
+     * @return elapsedNanos
+     */
+    public long elapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    /**
+     * ensures: returns the fittest genome so far
+     *
+     * @return the genome, or null if it was not recorded
+     */
+    public T bestSoFar() {
+        return this.bestSoFar;
+    }
+
+    /**
+     * ensures: returns the members of the hall of fame, fittest first
+     *
+     * @return the members, empty without a hall of fame
+     */
+    public ArrayList<T> hallOfFame() {
+        return this.hallOfFame;
+    }
+
+    /**
+     * ensures: returns whether the last generation bred children whose
+     * evaluation was pending
+     *
+     * @return childrenDeferred
+     */
+    public boolean childrenDeferred() {
+        return this.childrenDeferred;
+    }
+
+    /**
+     * ensures: returns what the surrogate had learned, as written by
+     * Surrogate.write
+     *
+     * @return the bytes, or null without a surrogate
+     */
+    public byte[] surrogate() {
+        return this.surrogate;
+    }
+
+    /**
+     * ensures: encodes the state of an algorithm into the bytes of a checkpoint
+     * file, capturing the Random as it is now
+     *
+     * @param generation the generation of the population
+     * @param population the evaluated genomes
+     * @param rand       the Random driving the algorithm
+     * @param codec      the encoding of the genomes
+     * @return the contents of the checkpoint file
+     * @throws IOException if a genome cannot be encoded
+     */
+    public static <T extends Genome> byte[] encode(int generation, List<T> population, Random rand,
+            GenomeCodec<T> codec) throws IOException {
+        return encode(new Checkpoint<T>(generation, new ArrayList<T>(population), rand), codec);
+    }
+
+    /**
+     * ensures: encodes a checkpoint into the bytes of a checkpoint file,
+     * capturing its Random as it is now
+     *
+     * @param checkpoint the state of the algorithm
+     * @param codec      the encoding of the genomes
+     * @return the contents of the checkpoint file
+     * @throws IOException if a genome cannot be encoded
+     */
+    public static <T extends Genome> byte[] encode(Checkpoint<T> checkpoint, GenomeCodec<T> codec)
+            throws IOException {
+        ByteArrayOutputStream randBytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(randBytes)) {
+            out.writeObject(checkpoint.rand);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(codec.getClass().getName());
+        out.writeInt(checkpoint.generation);
+        out.writeInt(randBytes.size());
+        randBytes.writeTo(out);
+        writeGenomes(checkpoint.population, codec, out);
+        out.writeLong(checkpoint.evaluations);
+        out.writeInt(checkpoint.lastImprovement);
+        out.writeLong(checkpoint.elapsedNanos);
+        out.writeBoolean(checkpoint.bestSoFar != null);
+        if (checkpoint.bestSoFar != null) {
+            out.writeDouble(checkpoint.bestSoFar.fitness());
+            codec.write(checkpoint.bestSoFar, out);
+        }
+        writeGenomes(checkpoint.hallOfFame, codec, out);
+        out.writeBoolean(checkpoint.childrenDeferred);
+        out.writeInt(checkpoint.surrogate == null ? -1 : checkpoint.surrogate.length);
+        if (checkpoint.surrogate != null) {
+            out.write(checkpoint.surrogate);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * ensures: writes checkpoint bytes to a file so that the file always holds
+     * either the previous checkpoint or the new one in full
+     *
+     * @param file  the path of the checkpoint file
+     * @param bytes the contents written by encode
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, byte[] bytes) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * ensures: reads a checkpoint file by memory mapping it, giving every genome
+     * the restored Random
+     *
+     * @param file  the path of the checkpoint file
+     * @param codec the encoding of the genomes, the same one that wrote the file
+     * @return the checkpoint
+     * @throws IOException if the file cannot be read or was not written by the
+     *                     codec
+     */
+    public static <T extends Genome> Checkpoint<T> read(Path file, GenomeCodec<T> codec) throws IOException {
+        ByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        DataInputStream in = new DataInputStream(new BufferInput(mapped));
+
+        if (in.readInt() != MAGIC) {
+            throw new IOException(file + " is not a checkpoint");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException(file + " has version " + version + ", only version " + VERSION + " can be read");
+        }
+        String codecName = in.readUTF();
+        if (!codecName.equals(codec.getClass().getName())) {
+            throw new IOException(file + " was written by " + codecName + ", not " + codec.getClass().getName());
+        }
+        int generation = in.readInt();
+
+        byte[] randBytes = new byte[in.readInt()];
+        in.readFully(randBytes);
+        Random rand;
+        try (ObjectInputStream randIn = new ObjectInputStream(new ByteArrayInputStream(randBytes))) {
+            rand = (Random) randIn.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(file + " holds a Random of an unknown class", e);
+        }
+
+        ArrayList<T> population = readGenomes(in, codec, rand);
+        long evaluations = in.readLong();
+        int lastImprovement = in.readInt();
+        long elapsedNanos = in.readLong();
+        T bestSoFar = null;
+        if (in.readBoolean()) {
+            double fitness = in.readDouble();
+            bestSoFar = codec.read(in, rand);
+            bestSoFar.assignFitness(fitness);
+        }
+        ArrayList<T> hallOfFame = readGenomes(in, codec, rand);
+        boolean childrenDeferred = in.readBoolean();
+        byte[] surrogate = null;
+        int length = in.readInt();
+        if (length >= 0) {
+            surrogate = new byte[length];
+            in.readFully(surrogate);
+        }
+        return new Checkpoint<T>(generation, population, rand, evaluations, lastImprovement, elapsedNanos,
+                bestSoFar, hallOfFame, childrenDeferred, surrogate);
+    }
+
+    /**
+     * ensures: writes the number of genomes, then the fitness and encoding of
+     * each
+     */
+    private static <T extends Genome> void writeGenomes(List<T> genomes, GenomeCodec<T> codec,
+            DataOutputStream out) throws IOException {
+        out.writeInt(genomes.size());
+        for (T genome : genomes) {
+            out.writeDouble(genome.fitness());
+            codec.write(genome, out);
+        }
+    }
+
+    /**
+     * ensures: reads genomes written by writeGenomes, giving them their fitness
+     * and the Random
+     */
+    private static <T extends Genome> ArrayList<T> readGenomes(DataInputStream in, GenomeCodec<T> codec,
+            Random rand) throws IOException {
+        int size = in.readInt();
+        ArrayList<T> genomes = new ArrayList<T>(size);
+        for (int i = 0; i < size; i++) {
+            double fitness = in.readDouble();
+            T genome = codec.read(in, rand);
+            genome.assignFitness(fitness);
+            genomes.add(genome);
+        }
+        return genomes;
+    }
+
+    /**
+     * reads a mapped file through the stream interfaces codecs expect
+     */
+    private static class BufferInput extends InputStream {
+        private ByteBuffer buffer;
+
+        BufferInput(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] destination, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            length = Math.min(length, this.buffer.remaining());
+            this.buffer.get(destination, offset, length);
+            return length;
+        }
+    }
+}
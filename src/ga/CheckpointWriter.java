@@ -0,0 +1,109 @@
+package ga;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * writes checkpoints on a background thread so the algorithm only pays for
+ * encoding them
+ *
+ * only the newest checkpoint waiting to be written is kept, an older one still
+ * waiting when the next arrives is skipped
+ */
+class CheckpointWriter {
+    private Path file;
+    private Object monitor = new Object();
+    // guarded by monitor
+    private byte[] pending;
+    private boolean writing;
+    private IOException failure;
+
+    /**
+     * ensures: starts the writer thread
+     *
+     * @param file the path checkpoints are written to
+     */
+    CheckpointWriter(Path file) {
+        this.file = file;
+        Thread thread = new Thread(this::writeAll, "Checkpoint writer " + file);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * ensures: hands an encoded checkpoint to the writer thread
+     *
+     * @param bytes the contents of the checkpoint file
+     */
+    void save(byte[] bytes) {
+        synchronized (this.monitor) {
+            this.throwIfFailed();
+            this.pending = bytes;
+            this.monitor.notifyAll();
+        }
+    }
+
+    /**
+     * ensures: waits until every checkpoint handed over has been written
+     */
+    void flush() {
+        synchronized (this.monitor) {
+            while (this.pending != null || this.writing) {
+                try {
+                    this.monitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for the checkpoint to be written", e);
+                }
+            }
+            this.throwIfFailed();
+        }
+    }
+
+    /**
+     * ensures: rethrows the failure of the last write on the calling thread
+     */
+    private void throwIfFailed() {
+        if (this.failure != null) {
+            IOException failure = this.failure;
+            this.failure = null;
+            throw new RuntimeException("Could not write the checkpoint " + this.file, failure);
+        }
+    }
+
+    /**
+     * ensures: writes checkpoints as they arrive, forever
+     */
+    private void writeAll() {
+        while (true) {
+            byte[] bytes;
+            synchronized (this.monitor) {
+                while (this.pending == null) {
+                    try {
+                        this.monitor.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                bytes = this.pending;
+                this.pending = null;
+                this.writing = true;
+            }
+
+            IOException failure = null;
+            try {
+                Checkpoint.write(this.file, bytes);
+            } catch (IOException e) {
+                failure = e;
+            }
+
+            synchronized (this.monitor) {
+                this.writing = false;
+                if (failure != null) {
+                    this.failure = failure;
+                }
+                this.monitor.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package ga;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * evaluates every pending genome on its own thread, for fitness functions that
+ * spend most of their time waiting on I/O or on another process
+ *
+ * a virtual thread is used per evaluation when the JVM has them, so thousands
+ * of evaluations can wait at once without a large thread pool. on older JVMs a
+ * pool of one platform thread per allowed concurrent evaluation is used instead,
+ * the other evaluations queueing for a thread rather than each holding one.
+ * only genomes that defer their evaluation benefit, the rest were evaluated
+ * when they were created
+ *
+ * an evaluation that runs past the timeout is interrupted and gives up its
+ * permit straight away, so an evaluation ignoring the interrupt holds on to its
+ * own thread but never keeps the others from starting. the platform pool grows
+ * by a thread for as long as such an evaluation is stuck
+ */
+class ConcurrentEvaluator {
+    private ExecutorService executor;
+    // the platform thread pool, or null with virtual threads
+    private ThreadPoolExecutor pool;
+    private Semaphore permits;
+    private long timeoutMillis;
+
+    /**
+     * ensures: instantiates an evaluator
+     *
+     * @param concurrency   the most evaluations running at once
+     * @param timeoutMillis the longest an evaluation may run once started, or 0
+     *                      for no limit
+     */
+    ConcurrentEvaluator(int concurrency, long timeoutMillis) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("evaluation.concurrency must be at least 1 but was " + concurrency);
+        }
+        this.executor = newVirtualThreadExecutor();
+        if (this.executor == null) {
+            this.pool = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<Runnable>(), task -> {
+                        Thread thread = new Thread(task, "Fitness evaluator");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            this.executor = this.pool;
+        }
+        this.permits = new Semaphore(concurrency);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * ensures: evaluates the genomes concurrently and waits for all of them,
+     * interrupting those that run past the timeout. with a timeout the wait is
+     * bounded, without one it lasts as long as the slowest evaluation
+     *
+     * @param genomes the genomes to evaluate
+     * @return the genomes that timed out, which are left unevaluated
+     */
+    ArrayList<Genome> evaluate(List<? extends Genome> genomes) {
+        ArrayList<Evaluation> evaluations = new ArrayList<Evaluation>(genomes.size());
+        for (Genome genome : genomes) {
+            Evaluation evaluation = new Evaluation(genome);
+            evaluation.result = this.executor.submit(evaluation::run);
+            evaluations.add(evaluation);
+        }
+
+        ArrayList<Genome> timedOut = new ArrayList<Genome>();
+        try {
+            for (Evaluation evaluation : evaluations) {
+                if (!evaluation.await(this.timeoutMillis)) {
+                    evaluation.abandon();
+                    timedOut.add(evaluation.genome);
+                }
+            }
+        } catch (InterruptedException e) {
+            for (Evaluation evaluation : evaluations) {
+                evaluation.result.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while evaluating the next generation", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Evaluating the next generation failed", e.getCause());
+        }
+        return timedOut;
+    }
+
+    /**
+     * ensures: stops the threads used for evaluating
+     */
+    void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * ensures: adds threads to the platform pool, or removes them when delta is
+     * negative, keeping its size fixed
+     *
+     * @param delta the number of threads to add
+     */
+    private synchronized void resizePool(int delta) {
+        if (this.pool == null) {
+            return;
+        }
+        int size = this.pool.getMaximumPoolSize() + delta;
+        // the core size may never exceed the maximum size, so the order matters
+        if (delta > 0) {
+            this.pool.setMaximumPoolSize(size);
+            this.pool.setCorePoolSize(size);
+        } else {
+            this.pool.setCorePoolSize(size);
+            this.pool.setMaximumPoolSize(size);
+        }
+    }
+
+    /**
+     * ensures: creates an executor starting a virtual thread per task
+     *
+     * @return the executor, or null if the JVM has no virtual threads
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * the evaluation of one genome and when it started running
+     */
+    private class Evaluation {
+        private Genome genome;
+        private Future<?> result;
+        private volatile long startedNanos;
+        // set once the permit is given back, by the evaluation or when abandoning it
+        private AtomicBoolean released = new AtomicBoolean();
+
+        Evaluation(Genome genome) {
+            this.genome = genome;
+        }
+
+        /**
+         * ensures: evaluates the genome once a permit is free
+         */
+        void run() {
+            try {
+                ConcurrentEvaluator.this.permits.acquire();
+            } catch (InterruptedException e) {
+                return; // cancelled before it started
+            }
+            try {
+                this.startedNanos = System.nanoTime();
+                this.genome.evaluate();
+            } finally {
+                if (!this.release()) {
+                    // abandoned while stuck, give back the thread added in its place
+                    ConcurrentEvaluator.this.resizePool(-1);
+                }
+            }
+        }
+
+        /**
+         * ensures: interrupts the evaluation and frees its permit for the next one,
+         * whether or not its thread ever stops, adding a platform thread in place
+         * of the one it holds until it does
+         */
+        void abandon() {
+            this.result.cancel(true);
+            if (this.release()) {
+                ConcurrentEvaluator.this.resizePool(1);
+            }
+        }
+
+        /**
+         * ensures: gives the permit back unless that was done already
+         *
+         * @return true if this call gave it back
+         */
+        private boolean release() {
+            if (this.released.compareAndSet(false, true)) {
+                ConcurrentEvaluator.this.permits.release();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * ensures: waits for the evaluation, giving it the timeout from when it
+         * started rather than from when it was submitted
+         *
+         * @param timeoutMillis the time limit, or 0 for no limit
+         * @return false if the evaluation ran out of time
+         * @throws InterruptedException if the waiting thread is interrupted
+         * @throws ExecutionException   if the evaluation threw
+         */
+        boolean await(long timeoutMillis) throws InterruptedException, ExecutionException {
+            if (timeoutMillis <= 0) {
+                this.result.get();
+                return true;
+            }
+            long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (true) {
+                long started = this.startedNanos;
+                // until it starts, check back after at most one timeout
+                long remaining = started == 0 ? timeoutNanos : started + timeoutNanos - System.nanoTime();
+                if (started != 0 && remaining <= 0) {
+                    if (!this.result.isDone()) {
+                        return false;
+                    }
+                    remaining = 0;
+                }
+                try {
+                    this.result.get(remaining, TimeUnit.NANOSECONDS);
+                    return true;
+                } catch (TimeoutException e) {
+                    // look at the start time again
+                }
+            }
+        }
+    }
+}
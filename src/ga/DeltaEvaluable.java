@@ -0,0 +1,63 @@
+package ga;
+
+/**
+ * an optional contract for genomes whose fitness is a sum of independent
+ * per-locus contributions, letting them update their fitness from the genes
+ * that changed instead of rescanning the whole genome
+ *
+ * raw fitness is the plain sum of the contributions, before any scaling the
+ * genome applies to produce fitness()
+ */
+public interface DeltaEvaluable {
+
+    /**
+     * ensures: returns the sum of the contributions of every locus
+     *
+     * @return the raw fitness of the genome
+     */
+    double rawFitness();
+
+    /**
+     * ensures: returns the sum of the contributions of loci [from, to)
+     *
+     * @param from the first locus, inclusive
+     * @param to   the last locus, exclusive
+     * @return the raw fitness of the range
+     */
+    double partialFitness(int from, int to);
+
+    /**
+     * ensures: brings the fitness up to date after the genes at the given loci
+     * changed
+     * requires: the fitness was up to date before the genes changed and each
+     * locus is listed once
+     *
+     * @param changedLoci  the loci whose genes changed
+     * @param changedCount the number of entries of changedLoci to use
+     */
+    void updateFitness(int[] changedLoci, int changedCount);
+
+    /**
+     * ensures: returns the raw fitness of the child taking loci [0,
+     * crossoverIndex) from one parent and the rest from the other, scanning only
+     * the shorter side of the crossover point
+     *
+     * for floating point contributions the result can differ from a full rescan
+     * by rounding error
+     *
+     * @param prefixParent   the parent of the prefix
+     * @param suffixParent   the parent of the suffix
+     * @param crossoverIndex the first locus taken from the suffix parent
+     * @param size           the number of loci in each genome
+     * @return the raw fitness of the child
+     */
+    static double crossoverFitness(DeltaEvaluable prefixParent, DeltaEvaluable suffixParent, int crossoverIndex,
+            int size) {
+        if (crossoverIndex <= size >> 1) {
+            return prefixParent.partialFitness(0, crossoverIndex) + suffixParent.rawFitness()
+                    - suffixParent.partialFitness(0, crossoverIndex);
+        }
+        return prefixParent.rawFitness() - prefixParent.partialFitness(crossoverIndex, size)
+                + suffixParent.partialFitness(crossoverIndex, size);
+    }
+}
@@ -0,0 +1,381 @@
+package ga;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * runs one island of an island model spread over several processes, exchanging
+ * migrants with the other islands over TCP or Unix domain sockets
+ *
+ * addresses are written host:port for TCP or unix:/path/to/socket for Unix
+ * domain sockets
+ *
+ * the island never waits on the network: migrants are encoded on the GA thread
+ * and handed to a small bounded outbox per peer, which a background thread
+ * sends. while a peer is slow or down its oldest unsent migrants are dropped and
+ * the connection is retried with backoff. incoming migrants are decoded by
+ * background threads and picked up at the next migration
+ */
+public class DistributedIsland<T extends Genome> implements AutoCloseable {
+    private static final int MAGIC = 0x47414D49; // "GAMI"
+    private static final int VERSION = 1;
+    private static final int MAX_FRAME_BYTES = 64 << 20;
+    private static final int OUTBOX_CAPACITY = 4;
+    private static final int CONNECT_TIMEOUT_MS = 2000;
+    private static final long MAX_BACKOFF_MS = 5000;
+
+    private GeneticAlgorithm<T> ga;
+    private GenomeCodec<T> codec;
+    private Random rand;
+    // the size every migrant must have, that of the initial population
+    private int genomeSize;
+    private int migrationInterval;
+    private int migrantCount;
+
+    private ServerSocketChannel server;
+    private Path unixSocketPath;
+    private ArrayList<Peer> peers;
+    private ConcurrentLinkedQueue<T> inbox;
+    private volatile boolean closed;
+
+    /**
+     * ensures: starts listening for migrants and starts a sender for each peer
+     *
+     * @param ga                the algorithm evolving this island
+     * @param codec             the encoding of the genomes
+     * @param rand              the source of randomness given to decoded genomes
+     * @param listenAddress     the address this island receives migrants on
+     * @param peerAddresses     the addresses of the islands migrants are sent to
+     * @param migrationInterval the number of generations between migrations
+     * @param migrantCount      the number of genomes sent to every peer per
+     *                          migration
+     * @throws IOException if the listen address cannot be bound
+     */
+    public DistributedIsland(GeneticAlgorithm<T> ga, GenomeCodec<T> codec, Random rand, String listenAddress,
+            List<String> peerAddresses, int migrationInterval, int migrantCount) throws IOException {
+        if (migrationInterval < 1) {
+            throw new IllegalArgumentException("The migration interval must be at least 1 generation");
+        }
+        this.ga = ga;
+        this.codec = codec;
+        this.rand = rand;
+        this.genomeSize = ga.population().get(0).size();
+        this.migrationInterval = migrationInterval;
+        this.migrantCount = migrantCount;
+        this.inbox = new ConcurrentLinkedQueue<T>();
+
+        SocketAddress address = parseAddress(listenAddress);
+        if (address instanceof UnixDomainSocketAddress) {
+            this.unixSocketPath = ((UnixDomainSocketAddress) address).getPath();
+            Files.deleteIfExists(this.unixSocketPath); // left behind by a previous run
+            this.server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+            this.server = ServerSocketChannel.open();
+        }
+        this.server.bind(address);
+        startDaemon(this::acceptPeers, "Island listener " + listenAddress);
+
+        this.peers = new ArrayList<Peer>(peerAddresses.size());
+        for (String peerAddress : peerAddresses) {
+            Peer peer = new Peer(peerAddress);
+            this.peers.add(peer);
+            startDaemon(peer::send, "Island sender " + peerAddress);
+        }
+    }
+
+    /**
+     * ensures: returns the algorithm evolving this island
+     *
+     * @return the island's algorithm
+     */
+    public GeneticAlgorithm<T> ga() {
+        return this.ga;
+    }
+
+    /**
+     * ensures: evolves the island for a designated number of generations or until
+     * a termination criterion is met, migrating every migrationInterval
+     * generations
+     *
+     * @param generations the number of generations to run
+     * @return the fittest genome of this island
+     */
+    public T run(int generations) {
+        for (int i = 0; i < generations && !this.ga.terminationReached(); i++) {
+            this.ga.nextGeneration();
+            if ((i + 1) % this.migrationInterval == 0) {
+                this.emigrate();
+                this.immigrate();
+            }
+        }
+        return this.ga.fittestGenome();
+    }
+
+    /**
+     * ensures: queues the fittest genomes of the island for every peer, dropping
+     * the oldest queued migrants of peers that have fallen behind
+     */
+    public void emigrate() {
+        if (this.peers.isEmpty() || this.migrantCount < 1) {
+            return;
+        }
+        byte[] frame;
+        try {
+            frame = this.encode(this.ga.emigrants(this.migrantCount));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not encode the emigrants", e);
+        }
+        for (Peer peer : this.peers) {
+            while (!peer.outbox.offer(frame)) {
+                peer.outbox.poll();
+            }
+        }
+    }
+
+    /**
+     * ensures: moves every migrant received so far into the population
+     */
+    public void immigrate() {
+        ArrayList<T> arrivals = new ArrayList<T>();
+        for (T migrant = this.inbox.poll(); migrant != null; migrant = this.inbox.poll()) {
+            arrivals.add(migrant);
+        }
+        this.ga.immigrate(arrivals);
+    }
+
+    /**
+     * ensures: stops listening and sending and closes every connection
+     */
+    @Override
+    public void close() throws IOException {
+        this.closed = true;
+        this.server.close();
+        for (Peer peer : this.peers) {
+            peer.disconnect();
+        }
+        if (this.unixSocketPath != null) {
+            Files.deleteIfExists(this.unixSocketPath);
+        }
+    }
+
+    /**
+     * ensures: parses host:port or unix:/path into a socket address
+     *
+     * @param address the address to parse
+     * @return the socket address
+     */
+    public static SocketAddress parseAddress(String address) {
+        if (address.startsWith("unix:")) {
+            return UnixDomainSocketAddress.of(address.substring("unix:".length()));
+        }
+        int colon = address.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Expected host:port or unix:/path but got " + address);
+        }
+        return new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+    }
+
+    /**
+     * ensures: encodes the migrants as one length prefixed frame
+     *
+     * @param migrants the genomes to send
+     * @return the frame
+     * @throws IOException if a genome cannot be encoded
+     */
+    private byte[] encode(ArrayList<T> migrants) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0); // the length, filled in below
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(migrants.size());
+        for (T migrant : migrants) {
+            out.writeDouble(migrant.fitness());
+            this.codec.write(migrant, out);
+        }
+        out.flush();
+
+        byte[] frame = bytes.toByteArray();
+        ByteBuffer.wrap(frame).putInt(0, frame.length - 4);
+        return frame;
+    }
+
+    /**
+     * ensures: accepts connections from peers until closed, reading each on its
+     * own thread
+     */
+    private void acceptPeers() {
+        while (!this.closed) {
+            try {
+                SocketChannel connection = this.server.accept();
+                startDaemon(() -> this.receive(connection), "Island receiver");
+            } catch (IOException e) {
+                if (!this.closed) {
+                    System.err.println("Island stopped accepting migrants: " + e.getMessage());
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * ensures: decodes frames from a peer into the inbox until the peer
+     * disconnects or sends something malformed, including migrants of another
+     * size than the genomes of this island
+     *
+     * @param connection the connection to the peer
+     */
+    private void receive(SocketChannel connection) {
+        try (connection;
+                DataInputStream in = new DataInputStream(
+                        new BufferedInputStream(Channels.newInputStream(connection)))) {
+            while (!this.closed) {
+                int length = in.readInt();
+                if (length < 12 || length > MAX_FRAME_BYTES) {
+                    throw new IOException("Invalid frame length " + length);
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+
+                DataInputStream frame = new DataInputStream(new ByteArrayInputStream(payload));
+                if (frame.readInt() != MAGIC || frame.readInt() != VERSION) {
+                    throw new IOException("Unrecognized migration frame");
+                }
+                int count = frame.readInt();
+                for (int i = 0; i < count; i++) {
+                    double fitness = frame.readDouble();
+                    T migrant = this.codec.read(frame, this.rand);
+                    if (migrant.size() != this.genomeSize) {
+                        throw new IOException("Received a migrant of size " + migrant.size() + " but genomes have size "
+                                + this.genomeSize);
+                    }
+                    migrant.assignFitness(fitness);
+                    this.inbox.add(migrant);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // the peer went away or misbehaved, it will reconnect if it can. a codec
+            // failing on a malformed genome must not take the receiver down unnoticed
+            if (!(e instanceof IOException)) {
+                System.err.println("Dropped a peer sending an undecodable migrant: " + e);
+            }
+        }
+    }
+
+    /**
+     * ensures: starts a daemon thread so a stuck connection never keeps the
+     * process alive
+     *
+     * @param task the work of the thread
+     * @param name the name of the thread
+     */
+    private static void startDaemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * a connection to another island and the migrants waiting to be sent to it
+     */
+    private class Peer {
+        private String address;
+        private ArrayBlockingQueue<byte[]> outbox;
+        private volatile SocketChannel channel;
+
+        Peer(String address) {
+            this.address = address;
+            this.outbox = new ArrayBlockingQueue<byte[]>(OUTBOX_CAPACITY);
+        }
+
+        /**
+         * ensures: sends queued frames until the island is closed, reconnecting
+         * with exponential backoff whenever the peer is unreachable
+         */
+        void send() {
+            long backoff = 100;
+            while (!DistributedIsland.this.closed) {
+                try {
+                    byte[] frame = this.outbox.take();
+                    if (this.channel == null) {
+                        this.channel = this.connect();
+                    }
+                    ByteBuffer buffer = ByteBuffer.wrap(frame);
+                    while (buffer.hasRemaining()) {
+                        this.channel.write(buffer);
+                    }
+                    backoff = 100;
+                } catch (InterruptedException e) {
+                    return;
+                } catch (IOException e) {
+                    // the frame is lost, later migrations are more current anyway
+                    this.disconnect();
+                    try {
+                        Thread.sleep(backoff);
+                    } catch (InterruptedException interrupted) {
+                        return;
+                    }
+                    backoff = Math.min(backoff << 1, MAX_BACKOFF_MS);
+                }
+            }
+        }
+
+        /**
+         * ensures: opens a blocking connection to the peer
+         *
+         * @return the connection
+         * @throws IOException if the peer cannot be reached
+         */
+        SocketChannel connect() throws IOException {
+            SocketAddress socketAddress = parseAddress(this.address);
+            if (socketAddress instanceof UnixDomainSocketAddress) {
+                SocketChannel connection = SocketChannel.open(StandardProtocolFamily.UNIX);
+                connection.connect(socketAddress);
+                return connection;
+            }
+            SocketChannel connection = SocketChannel.open();
+            try {
+                connection.socket().connect(socketAddress, CONNECT_TIMEOUT_MS);
+                connection.socket().setTcpNoDelay(true);
+            } catch (IOException e) {
+                connection.close();
+                throw e;
+            }
+            return connection;
+        }
+
+        /**
+         * ensures: closes the connection to the peer if there is one
+         */
+        void disconnect() {
+            SocketChannel connection = this.channel;
+            this.channel = null;
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (IOException e) {
+                    // already closed
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package ga;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * a bounded least recently used memo of fitness values keyed by genome content
+ *
+ * the genetic algorithm only consults it for genomes whose evaluation is
+ * pending, those that call invalidateFitness instead of calculating their
+ * fitness. genomes that evaluate eagerly in their constructors and mutate,
+ * such as PackedBitstring and the bitstring example, have paid for their
+ * fitness before the cache could help, so it never hits for them
+ *
+ * only used from the thread running the genetic algorithm, so it is not
+ * synchronized
+ */
+public class FitnessCache {
+    private LinkedHashMap<Object, Double> entries;
+    private int capacity;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * ensures: instantiates an empty cache
+     *
+     * @param capacity the maximum number of fitness values to remember
+     */
+    public FitnessCache(int capacity) {
+        this.capacity = capacity;
+        // access ordered so the eldest entry is always the least recently used
+        this.entries = new LinkedHashMap<Object, Double>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Double> eldest) {
+                if (this.size() > FitnessCache.this.capacity) {
+                    FitnessCache.this.evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * ensures: returns the remembered fitness for the key, or null if there is none
+     *
+     * @param key the content key of a genome
+     * @return the fitness or null
+     */
+    public Double get(Object key) {
+        Double fitness = this.entries.get(key);
+        if (fitness == null) {
+            this.misses++;
+        } else {
+            this.hits++;
+        }
+        return fitness;
+    }
+
+    /**
+     * ensures: returns whether a fitness is remembered for the key, without
+     * counting a lookup or refreshing the entry
+     *
+     * @param key the content key of a genome
+     * @return true if get would find a fitness
+     */
+    public boolean contains(Object key) {
+        return this.entries.containsKey(key);
+    }
+
+    /**
+     * ensures: remembers the fitness for the key, evicting the least recently used
+     * entry if the cache is full
+     *
+     * @param key     the content key of a genome
+     * @param fitness the fitness of the genome
+     */
+    public void put(Object key, double fitness) {
+        this.entries.put(key, fitness);
+    }
+
+    /**
+     * ensures: returns the number of lookups that found a fitness
+     *
+     * @return the number of hits
+     */
+    public long hits() {
+        return this.hits;
+    }
+
+    /**
+     * ensures: returns the number of lookups that did not find a fitness
+     *
+     * @return the number of misses
+     */
+    public long misses() {
+        return this.misses;
+    }
+
+    /**
+     * ensures: returns the number of entries dropped to stay within capacity
+     *
+     * @return the number of evictions
+     */
+    public long evictions() {
+        return this.evictions;
+    }
+
+    /**
+     * ensures: returns the number of fitness values currently remembered
+     *
+     * @return the size of the cache
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * ensures: returns the maximum number of fitness values remembered
+     *
+     * @return the capacity of the cache
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    @Override
+    public String toString() {
+        return "FitnessCache[size=" + this.size() + "/" + this.capacity + ", hits=" + this.hits + ", misses="
+                + this.misses + ", evictions=" + this.evictions + "]";
+    }
+}
@@ -0,0 +1,162 @@
+package ga;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * the settings of one algorithm, read from a config file once and never changed
+ *
+ * unlike PropParser every algorithm holds its own config, so algorithms with
+ * different settings can run side by side in one JVM. a variation of a config is
+ * made with with, which leaves the original untouched
+ */
+public final class GAConfig {
+    private final Map<String, String> values;
+
+    private GAConfig(Map<String, String> values) {
+        this.values = values;
+    }
+
+    /**
+     * ensures: reads a config file in the format of java.util.Properties
+     *
+     * @param fileName the path of the config file
+     * @return the config
+     */
+    public static GAConfig load(String fileName) {
+        Properties properties = new Properties();
+        try (FileReader reader = new FileReader(fileName)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read the config file " + fileName, e);
+        }
+        return of(properties);
+    }
+
+    /**
+     * ensures: copies the given properties into a config
+     *
+     * @param properties the settings
+     * @return the config
+     */
+    public static GAConfig of(Properties properties) {
+        HashMap<String, String> values = new HashMap<String, String>();
+        for (String key : properties.stringPropertyNames()) {
+            values.put(key, properties.getProperty(key));
+        }
+        return new GAConfig(Map.copyOf(values));
+    }
+
+    /**
+     * ensures: returns a copy of this config with one setting replaced
+     *
+     * @param key   the name of the setting
+     * @param value the new value, or null to remove the setting
+     * @return the new config
+     */
+    public GAConfig with(String key, String value) {
+        HashMap<String, String> values = new HashMap<String, String>(this.values);
+        if (value == null) {
+            values.remove(key);
+        } else {
+            values.put(key, value);
+        }
+        return new GAConfig(Map.copyOf(values));
+    }
+
+    /**
+     * ensures: returns a setting without surrounding whitespace
+     *
+     * @param key the name of the setting
+     * @return the value, or null if it is missing or blank
+     */
+    public String get(String key) {
+        String value = this.values.get(key);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * ensures: returns a setting, or the default if it is missing or blank
+     *
+     * @param key          the name of the setting
+     * @param defaultValue the value to use when the setting is missing
+     * @return the value
+     */
+    public String getString(String key, String defaultValue) {
+        String value = this.get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * ensures: returns an integer setting, or the default if it is missing or
+     * blank
+     *
+     * @param key          the name of the setting
+     * @param defaultValue the value to use when the setting is missing
+     * @return the value
+     * @throws NumberFormatException if the setting is not an integer
+     */
+    public int getInt(String key, int defaultValue) {
+        String value = this.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    /**
+     * ensures: returns a long setting, or the default if it is missing or blank
+     *
+     * @param key          the name of the setting
+     * @param defaultValue the value to use when the setting is missing
+     * @return the value
+     * @throws NumberFormatException if the setting is not an integer
+     */
+    public long getLong(String key, long defaultValue) {
+        String value = this.get(key);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    /**
+     * ensures: returns a decimal setting, or the default if it is missing or blank
+     *
+     * @param key          the name of the setting
+     * @param defaultValue the value to use when the setting is missing
+     * @return the value
+     * @throws NumberFormatException if the setting is not a number
+     */
+    public double getDouble(String key, double defaultValue) {
+        String value = this.get(key);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    /**
+     * ensures: returns a boolean setting, or the default if it is missing or
+     * blank. any value but true (ignoring case) is false
+     *
+     * @param key          the name of the setting
+     * @param defaultValue the value to use when the setting is missing
+     * @return the value
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = this.get(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * ensures: returns the settings as a new Properties
+     *
+     * @return a copy of the settings
+     */
+    public Properties toProperties() {
+        Properties properties = new Properties();
+        properties.putAll(this.values);
+        return properties;
+    }
+
+    @Override
+    public String toString() {
+        return new TreeMap<String, String>(this.values).toString();
+    }
+}
@@ -0,0 +1,145 @@
+package ga;
+
+import java.util.Random;
+
+/**
+ * bulk operator kernels over whole genomes: bit flip masks, real valued
+ * crossover and Gaussian mutation
+ *
+ * the kernels draw their random numbers in gene order, so a seeded run always
+ * produces the same genomes. uniform numbers are drawn into per thread buffers
+ * first so the loops doing the arithmetic stay free of calls into Random
+ */
+public final class GeneKernels {
+    // random numbers are drawn into per thread buffers of this many genes at a time
+    private static final int CHUNK = 1024;
+
+    private static final ThreadLocal<double[]> UNIFORMS = ThreadLocal.withInitial(() -> new double[CHUNK]);
+
+    private GeneKernels() {
+    }
+
+    /**
+     * ensures: sets bit i of the mask (bit i % 64 of word i / 64) with the given
+     * probability for every i below length and clears the rest
+     *
+     * draws one rand.nextDouble() per bit in order, so the result is the same as
+     * testing rand.nextDouble() < rate gene by gene
+     *
+     * @param mask   the words to fill, at least (length + 63) / 64 of them
+     * @param length the number of bits
+     * @param rate   the probability of setting each bit
+     * @param rand   the source of randomness
+     */
+    public static void bitFlipMask(long[] mask, int length, double rate, Random rand) {
+        double[] uniforms = UNIFORMS.get();
+        for (int start = 0; start < length; start += CHUNK) {
+            int count = Math.min(CHUNK, length - start);
+            for (int i = 0; i < count; i++) {
+                uniforms[i] = rand.nextDouble();
+            }
+            // CHUNK is a multiple of 64, so every chunk starts on a word
+            for (int bit = 0; bit < count; bit += Long.SIZE) {
+                int bits = Math.min(Long.SIZE, count - bit);
+                long word = 0;
+                for (int i = 0; i < bits; i++) {
+                    if (uniforms[bit + i] < rate) {
+                        word |= 1L << i;
+                    }
+                }
+                mask[(start + bit) >>> 6] = word;
+            }
+        }
+    }
+
+    /**
+     * ensures: writes the weighted means w * a + (1 - w) * b to first and
+     * (1 - w) * a + w * b to second
+     *
+     * @param a      the genes of the first parent
+     * @param b      the genes of the second parent
+     * @param weight the weight of the first parent in the first child
+     * @param first  the genes of the first child
+     * @param second the genes of the second child
+     */
+    public static void arithmeticCrossover(double[] a, double[] b, double weight, double[] first, double[] second) {
+        double complement = 1.0 - weight;
+        for (int i = 0; i < a.length; i++) {
+            first[i] = weight * a[i] + complement * b[i];
+            second[i] = complement * a[i] + weight * b[i];
+        }
+    }
+
+    /**
+     * ensures: writes a child whose every gene is drawn uniformly from the range
+     * spanned by the parents' genes, widened by alpha times its width on each
+     * side (BLX-alpha)
+     *
+     * @param a     the genes of the first parent
+     * @param b     the genes of the second parent
+     * @param alpha how far beyond the parents children may reach, 0.5 is usual
+     * @param child the genes of the child
+     * @param rand  the source of randomness
+     */
+    public static void blendCrossover(double[] a, double[] b, double alpha, double[] child, Random rand) {
+        double[] uniforms = UNIFORMS.get();
+        double span = 1.0 + 2.0 * alpha;
+        for (int start = 0; start < a.length; start += CHUNK) {
+            int count = Math.min(CHUNK, a.length - start);
+            for (int i = 0; i < count; i++) {
+                uniforms[i] = rand.nextDouble();
+            }
+            for (int i = 0; i < count; i++) {
+                double lo = Math.min(a[start + i], b[start + i]);
+                double distance = Math.abs(a[start + i] - b[start + i]);
+                child[start + i] = lo - alpha * distance + uniforms[i] * (distance * span);
+            }
+        }
+    }
+
+    /**
+     * ensures: adds sigma times a standard normal draw to each gene with the
+     * given probability, clamping mutated genes to [min, max]
+     *
+     * the gaps between mutated genes are geometrically distributed, so it jumps
+     * from one mutated gene to the next and draws a Gaussian only for those,
+     * about rate * genes.length of each draw instead of one per gene
+     *
+     * @param genes the genes to mutate
+     * @param rate  the probability of mutating each gene
+     * @param sigma the standard deviation of the change
+     * @param min   the lowest value a gene may take
+     * @param max   the highest value a gene may take
+     * @param rand  the source of randomness
+     */
+    public static void gaussianMutation(double[] genes, double rate, double sigma, double min, double max,
+            Random rand) {
+        if (!(rate > 0)) {
+            return;
+        }
+        // with every gene mutating there are no gaps to draw
+        double logSkip = rate >= 1 ? Double.NEGATIVE_INFINITY : Math.log1p(-rate);
+        long index = nextGap(rand, logSkip);
+        while (index < genes.length) {
+            int gene = (int) index;
+            genes[gene] = Math.min(max, Math.max(min, genes[gene] + sigma * rand.nextGaussian()));
+            index += 1 + nextGap(rand, logSkip);
+        }
+    }
+
+    /**
+     * ensures: returns the number of genes skipped before the next mutated one
+     *
+     * @param rand    the source of randomness
+     * @param logSkip the log of the probability of skipping a gene
+     * @return the gap
+     */
+    private static long nextGap(Random rand, double logSkip) {
+        if (logSkip == Double.NEGATIVE_INFINITY) {
+            return 0;
+        }
+        // 1 - nextDouble() is in (0, 1], avoiding log(0), and the cap keeps the
+        // running index from overflowing when the rate is tiny
+        return (long) Math.min(Math.log(1.0 - rand.nextDouble()) / logSkip, Integer.MAX_VALUE);
+    }
+}
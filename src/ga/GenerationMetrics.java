@@ -0,0 +1,121 @@
+package ga;
+
+/**
+ * the time spent in each phase of one generation, with the evaluations it made
+ * and the memory it allocated
+ *
+ * phases are timed on the thread running the algorithm. when breeding in
+ * parallel the crossover phase also covers mutation, which happens on the same
+ * worker threads
+ */
+public class GenerationMetrics {
+    private int generation;
+    private long[] phaseNanos;
+    private long totalNanos;
+    private int evaluations;
+    private long allocatedBytes;
+
+    /**
+     * ensures: instantiates the metrics of a generation
+     *
+     * @param generation     the generation measured
+     * @param phaseNanos     the nanoseconds spent in each phase, indexed by
+     *                       Phase.ordinal()
+     * @param totalNanos     the nanoseconds the whole generation took
+     * @param evaluations    the number of fitness evaluations carried out
+     * @param allocatedBytes the bytes allocated by the thread running the
+     *                       algorithm, or -1 if the JVM does not count them
+     */
+    public GenerationMetrics(int generation, long[] phaseNanos, long totalNanos, int evaluations,
+            long allocatedBytes) {
+        this.generation = generation;
+        this.phaseNanos = phaseNanos;
+        this.totalNanos = totalNanos;
+        this.evaluations = evaluations;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * ensures: returns the generation measured
+     *
+     * @return generation
+     */
+    public int generation() {
+        return this.generation;
+    }
+
+    /**
+     * ensures: returns the time spent in a phase
+     *
+     * @param phase the phase
+     * @return the nanoseconds spent in the phase
+     */
+    public long nanos(Phase phase) {
+        return this.phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * ensures: returns the time the whole generation took, including the work
+     * that belongs to no phase
+     *
+     * @return the nanoseconds of the generation
+     */
+    public long totalNanos() {
+        return this.totalNanos;
+    }
+
+    /**
+     * ensures: returns the number of fitness evaluations carried out, leaving out
+     * genomes given a cached or shared fitness. genomes that evaluate themselves
+     * as soon as they change are counted, their time falls in the phase that
+     * changed them
+     *
+     * @return evaluations
+     */
+    public int evaluations() {
+        return this.evaluations;
+    }
+
+    /**
+     * ensures: returns the evaluations made per second of the generation
+     *
+     * @return evaluations per second
+     */
+    public double evaluationsPerSecond() {
+        return this.totalNanos == 0 ? 0 : this.evaluations * 1e9 / this.totalNanos;
+    }
+
+    /**
+     * ensures: returns the bytes allocated by the thread running the algorithm
+     * during the generation, which leaves out allocations of worker threads
+     *
+     * @return the allocated bytes, or -1 if the JVM does not count them
+     */
+    public long allocatedBytes() {
+        return this.allocatedBytes;
+    }
+
+    /**
+     * the parts of a generation that are timed
+     */
+    public enum Phase {
+        // preparing the selection method and drawing parents
+        SELECTION,
+        // crossing over the parents, and mutating when breeding in parallel
+        CROSSOVER,
+        // mutating the children when breeding serially
+        MUTATION,
+        // predicting which children to evaluate and teaching the surrogate
+        SCREENING,
+        // looking up, evaluating and deduplicating the children
+        EVALUATION,
+        // moving the fittest genomes to the front of the population and the children
+        SORTING,
+        // computing the statistics of the new population
+        STATISTICS,
+        // running the loggers
+        LOGGING,
+        // encoding a checkpoint
+        CHECKPOINT
+    }
+}
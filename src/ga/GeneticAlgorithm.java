@@ -3,22 +3,93 @@ package ga;
 import java.util.Random;
 import java.util.Collections;
 import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * used for evolving an optimal genome of type T
  */
-public class GeneticAlgorithm<T extends Genome> {
+public class GeneticAlgorithm<T extends Genome> implements AutoCloseable {
+    private static final int MAX_PARENT_REDRAWS = 8;
+
+    private GAConfig config;
     private Random rand;
     private int generation;
     private ArrayList<T> population;
     private ArrayList<Logger<T>> loggers;
+    private ParallelBreeder<T> breeder;
+    private FitnessCache cache;
+    private ConcurrentEvaluator evaluator;
+    private BatchEvaluator batchEvaluator;
+    // genomes that have left the population, waiting to be recycled into children
+    private ArrayDeque<T> retired;
+    // reused between generations by batch evaluation
+    private double[] batchGenes = new double[0];
+    private double[] batchFitness = new double[0];
+    // reused between calls to partialSort
+    private double[] sortKeys = new double[0];
+    private int[] sortOrder = new int[0];
+    private ArrayList<T> sortedGenomes = new ArrayList<T>();
+    private PopulationStatistics statistics;
+    private GenomeCodec<T> checkpointCodec;
+    private CheckpointWriter checkpointWriter;
+    // null until a metrics registry is added, so nothing is timed without one
+    private MetricsRecorder metrics;
+    // the MBean registered for metrics.jmx, unregistered by close
+    private JmxMetrics jmxMetrics;
+    private HallOfFame<T> hallOfFame;
+    private Surrogate surrogate;
+    // reused between generations by the surrogate
+    private double[] surrogateGenes = new double[0];
+    private double[] predictions = new double[0];
+    private int[] candidateOrder = new int[0];
+    // whether the last evaluation had genomes pending, only then is there anything
+    // for the surrogate to screen and a reason to breed extra children
+    private boolean childrenDeferred = true;
+    // what a checkpoint's surrogate learned, until a surrogate is given to restore it into
+    private byte[] surrogateState;
+    // the fittest genome of any generation so far, kept up to date with the statistics
+    private T bestSoFar;
+    private int lastImprovement;
+    private long evaluations;
+    private long startNanos;
 
-    private SelectionMethod<T> SELECTION_METHOD;
+    private SelectionMethod SELECTION_METHOD;
     private int SURVIVING_CHILDREN;
     private int MAX_POPULATION_SIZE = -1;
     private int ELITE_COUNT = -1;
     private double MUTATION_RATE = -1.0;
     private double FITNESS_THRESHOLD = -1.0;
+    private int PARALLELISM = 0;
+    private int CACHE_SIZE = 0;
+    private boolean DEDUPLICATE_CHILDREN = false;
+    private boolean MEASURE_DIVERSITY = false;
+    private boolean RECYCLE_GENOMES = false;
+    private boolean CONCURRENT_EVALUATION = false;
+    private int EVALUATION_CONCURRENCY = 256;
+    private long EVALUATION_TIMEOUT_MS = 0;
+    private int CHECKPOINT_INTERVAL = 0;
+    private String CHECKPOINT_PATH;
+    private boolean METRICS_JMX = false;
+    private int METRICS_SUMMARY_INTERVAL = 0;
+    private int HALL_OF_FAME_SIZE = 0;
+    private int STAGNATION_LIMIT = 0;
+    private long TIME_LIMIT_MS = 0;
+    private long EVALUATION_BUDGET = 0;
+    private double SURROGATE_OVERSAMPLING = -1.0;
+    private double SURROGATE_EXACT_FRACTION = 0.25;
+    private double SURROGATE_RANDOM_FRACTION = 0.05;
+    private long SURROGATE_WARMUP = -1;
 
     /**
      * ensures: instantiates everything needed to run the genetic algorithm
@@ -30,12 +101,120 @@ public class GeneticAlgorithm<T extends Genome> {
      */
     public GeneticAlgorithm(String configFileName, ArrayList<T> initialPopulation, Random rand,
             ArrayList<Logger<T>> loggers) {
-        this.verifyConstants(configFileName);
+        this(GAConfig.load(configFileName), initialPopulation, rand, loggers);
+    }
+
+    /**
+     * ensures: instantiates everything needed to run the genetic algorithm with
+     * settings of its own, which no other algorithm in the JVM affects
+     * 
+     * @param config            the settings to use
+     * @param initialPopulation the genomes to start from
+     * @param rand              the source of randomness
+     * @param loggers           the loggers to log each generation to
+     */
+    public GeneticAlgorithm(GAConfig config, ArrayList<T> initialPopulation, Random rand,
+            ArrayList<Logger<T>> loggers) {
+        this(config, initialPopulation, rand, loggers, null);
+    }
+
+    /**
+     * ensures: instantiates everything needed to run the genetic algorithm,
+     * evaluating the pending genomes of every generation, the initial population
+     * included, with one call to the given batch evaluator
+     * 
+     * @param config            the settings to use
+     * @param initialPopulation the genomes to start from
+     * @param rand              the source of randomness
+     * @param loggers           the loggers to log each generation to
+     * @param batchEvaluator    the batch evaluator to use, or null to evaluate
+     *                          genomes one by one
+     */
+    public GeneticAlgorithm(GAConfig config, ArrayList<T> initialPopulation, Random rand,
+            ArrayList<Logger<T>> loggers, BatchEvaluator batchEvaluator) {
+        this.config = config;
+        this.batchEvaluator = batchEvaluator;
+        this.verifyConstants(config);
+        this.startNanos = System.nanoTime();
         this.rand = rand;
         this.generation = 0;
         this.population = initialPopulation;
         this.SURVIVING_CHILDREN = this.MAX_POPULATION_SIZE - this.ELITE_COUNT;
         this.loggers = loggers;
+        if (this.PARALLELISM > 0) {
+            this.breeder = new ParallelBreeder<T>(this.PARALLELISM);
+        }
+        if (this.CACHE_SIZE > 0) {
+            this.cache = new FitnessCache(this.CACHE_SIZE);
+        }
+        if (this.RECYCLE_GENOMES) {
+            this.retired = new ArrayDeque<T>(this.MAX_POPULATION_SIZE << 1);
+        }
+        if (this.CONCURRENT_EVALUATION) {
+            this.evaluator = new ConcurrentEvaluator(this.EVALUATION_CONCURRENCY, this.EVALUATION_TIMEOUT_MS);
+        }
+        if (this.HALL_OF_FAME_SIZE > 0) {
+            this.hallOfFame = new HallOfFame<T>(this.HALL_OF_FAME_SIZE);
+        }
+        int initialSize = this.population.size();
+        this.evaluateAll(this.population, initialSize);
+        if (this.population.size() < initialSize) {
+            throw new IllegalStateException((initialSize - this.population.size())
+                    + " genomes of the initial population timed out while being evaluated");
+        }
+        this.updateStatistics();
+        if (this.surrogate != null) {
+            this.observe(this.population);
+        }
+        if (this.METRICS_JMX) {
+            this.jmxMetrics = new JmxMetrics();
+            this.addMetricsRegistry(this.jmxMetrics);
+        }
+        if (this.METRICS_SUMMARY_INTERVAL > 0) {
+            this.addMetricsRegistry(new MetricsSummary(this.METRICS_SUMMARY_INTERVAL));
+        }
+    }
+
+    /**
+     * ensures: resumes the genetic algorithm from a checkpoint, after which it
+     * continues exactly as the algorithm that wrote the checkpoint would have
+     * 
+     * @param configFileName the config file the checkpointed algorithm used
+     * @param checkpoint     the checkpoint to resume from
+     * @param loggers        the loggers to continue logging to
+     */
+    public GeneticAlgorithm(String configFileName, Checkpoint<T> checkpoint, ArrayList<Logger<T>> loggers) {
+        this(GAConfig.load(configFileName), checkpoint, loggers);
+    }
+
+    /**
+     * ensures: resumes the genetic algorithm from a checkpoint, after which it
+     * continues exactly as the algorithm that wrote the checkpoint would have
+     * 
+     * @param config     the settings the checkpointed algorithm used
+     * @param checkpoint the checkpoint to resume from
+     * @param loggers    the loggers to continue logging to
+     */
+    public GeneticAlgorithm(GAConfig config, Checkpoint<T> checkpoint, ArrayList<Logger<T>> loggers) {
+        this(config, checkpoint.population(), checkpoint.rand(), loggers);
+        this.generation = checkpoint.generation();
+        this.evaluations = checkpoint.evaluations();
+        this.lastImprovement = checkpoint.lastImprovement();
+        this.startNanos = System.nanoTime() - checkpoint.elapsedNanos();
+        if (checkpoint.bestSoFar() != null) {
+            checkpoint.bestSoFar().pin();
+            this.bestSoFar = checkpoint.bestSoFar();
+        }
+        if (this.hallOfFame != null && !checkpoint.hallOfFame().isEmpty()) {
+            this.hallOfFame = new HallOfFame<T>(this.HALL_OF_FAME_SIZE);
+            this.hallOfFame.offerAll(checkpoint.hallOfFame());
+        }
+        this.childrenDeferred = checkpoint.childrenDeferred();
+        this.surrogateState = checkpoint.surrogate();
+        if (this.surrogate != null && this.surrogateState != null) {
+            this.restoreSurrogate();
+        }
+        this.statistics = PopulationStatistics.of(this.population, this.generation, this.MEASURE_DIVERSITY);
     }
 
     /**
@@ -47,6 +226,25 @@ public class GeneticAlgorithm<T extends Genome> {
         return this.generation;
     }
 
+    /**
+     * ensures: returns the settings of the algorithm
+     * 
+     * @return config
+     */
+    public GAConfig config() {
+        return this.config;
+    }
+
+    /**
+     * ensures: returns the source of randomness of the algorithm, for genomes
+     * joining the population from elsewhere
+     * 
+     * @return rand
+     */
+    Random random() {
+        return this.rand;
+    }
+
     /**
      * ensures: returns the current population of the algorithm
      * 
@@ -62,7 +260,156 @@ public class GeneticAlgorithm<T extends Genome> {
      * @return fittest genome
      */
     public T fittestGenome() {
-        return this.findFittestGenome(this.population);
+        T fittest = this.population.get(this.statistics.fittestIndex());
+        fittest.pin(); // the caller may hold on to it
+        return fittest;
+    }
+
+    /**
+     * ensures: returns the fittest genome of any generation so far, which is the
+     * fittest of the current population unless elitism is disabled
+     * 
+     * @return the fittest genome seen
+     */
+    public T bestSoFar() {
+        return this.bestSoFar;
+    }
+
+    /**
+     * ensures: returns the archive of the fittest distinct genomes of all
+     * generations
+     * 
+     * @return the hall of fame, or null if hall.of.fame.size is not set
+     */
+    public HallOfFame<T> hallOfFame() {
+        return this.hallOfFame;
+    }
+
+    /**
+     * ensures: returns the number of fitness evaluations carried out so far,
+     * including those of the initial population. genomes that evaluate
+     * themselves when created count as much as deferred ones, fitness taken from
+     * the cache or from a duplicate does not count
+     * 
+     * @return evaluations
+     */
+    public long evaluations() {
+        return this.evaluations;
+    }
+
+    /**
+     * ensures: returns the statistics of the current population
+     * 
+     * @return the statistics computed for the current generation
+     */
+    public PopulationStatistics statistics() {
+        return this.statistics;
+    }
+
+    /**
+     * ensures: returns the fitness cache of the algorithm
+     * 
+     * @return the fitness cache, or null if caching is disabled
+     */
+    public FitnessCache fitnessCache() {
+        return this.cache;
+    }
+
+    /**
+     * ensures: breeds, mutates and evaluates children on the given executor
+     * instead of the GA's own thread pool, using the configured parallelism (or
+     * the given one when none was configured). the GA never shuts the executor
+     * down, it stays the caller's
+     * 
+     * @param executor    the executor to breed children on
+     * @param parallelism the number of threads the executor provides
+     */
+    public void useExecutor(ExecutorService executor, int parallelism) {
+        if (this.breeder != null) {
+            this.breeder.shutdown(); // only stops a pool the GA created itself
+        }
+        if (this.PARALLELISM <= 0) {
+            this.PARALLELISM = parallelism;
+        }
+        this.breeder = new ParallelBreeder<T>(executor, this.PARALLELISM);
+    }
+
+    /**
+     * ensures: writes a checkpoint every checkpoint.interval generations to
+     * checkpoint.path, encoding on this thread and writing in the background
+     * requires: cache.size is not set, the fitness cache cannot be checkpointed
+     * and a resumed run without it would evaluate differently
+     * 
+     * @param codec the encoding of the genomes
+     */
+    public void useCheckpoints(GenomeCodec<T> codec) {
+        if (this.CHECKPOINT_INTERVAL <= 0 || this.CHECKPOINT_PATH == null) {
+            throw new IllegalStateException(
+                    "checkpoint.interval and checkpoint.path must be set in the config file to use checkpoints");
+        }
+        if (this.cache != null) {
+            throw new IllegalStateException("Checkpoints cannot be used with cache.size set, a resumed run would "
+                    + "start with an empty fitness cache");
+        }
+        this.checkpointCodec = codec;
+        if (this.checkpointWriter == null) {
+            this.checkpointWriter = new CheckpointWriter(Path.of(this.CHECKPOINT_PATH));
+        }
+    }
+
+    /**
+     * ensures: evaluates every pending genome of a generation with one call to
+     * the given batch evaluator, in place of evaluating them one by one, from the
+     * next generation on. the initial population was evaluated by the
+     * constructor, pass the batch evaluator to it to cover that population too
+     * 
+     * @param batchEvaluator the batch evaluator to use, or null to evaluate
+     *                       genomes one by one again
+     */
+    public void useBatchEvaluator(BatchEvaluator batchEvaluator) {
+        this.batchEvaluator = batchEvaluator;
+    }
+
+    /**
+     * ensures: screens the children of every generation with the given surrogate
+     * from now on, only evaluating the most promising exactly
+     * 
+     * the surrogate learns from every genome evaluated exactly, it has not seen
+     * the current population unless it was observed before. after resuming from
+     * a checkpoint holding a surrogate, the given surrogate continues from what
+     * that one learned
+     * 
+     * @param surrogate the surrogate to screen with, or null to evaluate every
+     *                  child again
+     */
+    public void useSurrogate(Surrogate surrogate) {
+        this.surrogate = surrogate;
+        if (this.surrogate != null && this.surrogateState != null) {
+            this.restoreSurrogate();
+        }
+    }
+
+    /**
+     * ensures: draws parents with the given selection method from the next
+     * generation on, in place of the one named in the config file
+     * 
+     * @param selectionMethod the selection method to use
+     */
+    public void useSelectionMethod(SelectionMethod selectionMethod) {
+        this.SELECTION_METHOD = selectionMethod;
+    }
+
+    /**
+     * ensures: times the phases of every generation from now on and hands the
+     * metrics to the given registry, along with any added before
+     * 
+     * @param registry the registry to receive the metrics of each generation
+     */
+    public void addMetricsRegistry(MetricsRegistry registry) {
+        if (this.metrics == null) {
+            this.metrics = new MetricsRecorder();
+        }
+        this.metrics.add(registry);
     }
 
     /**
@@ -70,49 +417,258 @@ public class GeneticAlgorithm<T extends Genome> {
      * chosen selection method
      */
     public void nextGeneration() {
+        if (this.metrics != null) {
+            this.metrics.startGeneration();
+        }
         ArrayList<T> nextGeneration = new ArrayList<T>(this.MAX_POPULATION_SIZE);
         this.partialSort(this.population, this.ELITE_COUNT);
         nextGeneration.addAll(this.population.subList(0, this.ELITE_COUNT));
+        this.lap(GenerationMetrics.Phase.SORTING);
 
-        ArrayList<T> children = this.SELECTION_METHOD.produceNextGeneration(this.population);
-        this.mutateAll(children);
-        this.partialSort(children, this.SURVIVING_CHILDREN);
-        nextGeneration.addAll(children.subList(0, this.SURVIVING_CHILDREN));
+        ArrayList<T> children = this.produceChildren();
+        if (this.breeder == null) {
+            this.mutateAll(children);
+            this.lap(GenerationMetrics.Phase.MUTATION);
+        } else {
+            // the selection method only scheduled the matings, carry them out now
+            children = this.breeder.breed(this.MUTATION_RATE);
+            this.lap(GenerationMetrics.Phase.CROSSOVER);
+        }
+        ArrayList<T> discarded = new ArrayList<T>();
+        if (this.surrogate != null) {
+            children = this.screen(children, discarded);
+            this.lap(GenerationMetrics.Phase.SCREENING);
+        }
+        this.evaluateAll(children, this.SURVIVING_CHILDREN);
+        this.lap(GenerationMetrics.Phase.EVALUATION);
+        if (this.surrogate != null) {
+            this.observe(children);
+            this.lap(GenerationMetrics.Phase.SCREENING);
+        }
+        int survivors = Math.min(this.SURVIVING_CHILDREN, children.size());
+        this.partialSort(children, survivors);
+        nextGeneration.addAll(children.subList(0, survivors));
+        if (survivors < this.SURVIVING_CHILDREN) {
+            // children that timed out or were screened out are replaced by the
+            // fittest parents after the elites, chosen among the other parents so no
+            // elite is taken twice when fitness ties reorder the population
+            ArrayList<T> rest = new ArrayList<T>(this.population.subList(this.ELITE_COUNT, this.population.size()));
+            int shortfall = Math.min(this.SURVIVING_CHILDREN - survivors, rest.size());
+            this.partialSort(rest, shortfall);
+            nextGeneration.addAll(rest.subList(0, shortfall));
+        }
+        this.lap(GenerationMetrics.Phase.SORTING);
 
         this.generation++;
+        if (this.retired != null) {
+            this.retire(nextGeneration, children, discarded);
+        }
         this.population = nextGeneration;
+        if (this.metrics != null) {
+            this.metrics.skip();
+        }
+        this.updateStatistics();
+        this.lap(GenerationMetrics.Phase.STATISTICS);
         this.logData();
+        this.lap(GenerationMetrics.Phase.LOGGING);
+        if (this.checkpointWriter != null && this.generation % this.CHECKPOINT_INTERVAL == 0) {
+            this.checkpoint();
+            this.lap(GenerationMetrics.Phase.CHECKPOINT);
+        }
+        if (this.metrics != null) {
+            this.metrics.finishGeneration(this.generation);
+        }
     }
 
     /**
      * ensures: runs the genetic algorithm for a designated number of generations or
-     * until the fittest individual meets the given threshold
+     * until a termination criterion is met
      * 
      * @param generations the number of generations to run
      * @return the fittest genome at the end of the simulation
      */
     public T run(int generations) {
-        for (int i = 0; i < generations
-                && this.findFittestGenome(this.population).fitness() < this.FITNESS_THRESHOLD; i++) {
+        for (int i = 0; i < generations && !this.terminationReached(); i++) {
             this.nextGeneration();
         }
+        if (this.checkpointWriter != null) {
+            this.checkpointWriter.flush();
+        }
+
+        return this.fittestGenome();
+    }
+
+    /**
+     * ensures: stops the threads evaluating genomes and the breeding pool the GA
+     * created itself, leaving an executor given to useExecutor running, and
+     * unregisters the MBean of metrics.jmx. registries added by the caller are
+     * left alone. the GA must not be run again afterwards
+     */
+    @Override
+    public void close() {
+        if (this.evaluator != null) {
+            this.evaluator.shutdown();
+            this.evaluator = null;
+        }
+        if (this.breeder != null) {
+            this.breeder.shutdown();
+            this.breeder = null;
+        }
+        if (this.jmxMetrics != null) {
+            this.jmxMetrics.unregister();
+            this.jmxMetrics = null;
+        }
+    }
+
+    /**
+     * ensures: returns whether the fittest genome meets the fitness threshold
+     * 
+     * @return true if the algorithm would stop early
+     */
+    public boolean thresholdReached() {
+        return this.statistics.max() >= this.FITNESS_THRESHOLD;
+    }
+
+    /**
+     * ensures: returns whether any termination criterion from the config file is
+     * met
+     * 
+     * @return true if run would stop before the next generation
+     */
+    public boolean terminationReached() {
+        return this.termination() != null;
+    }
+
+    /**
+     * ensures: returns the first termination criterion that is met, checking the
+     * cheapest first
+     * 
+     * @return the criterion, or null if the algorithm may continue
+     */
+    public Termination termination() {
+        if (this.thresholdReached()) {
+            return Termination.FITNESS_THRESHOLD;
+        }
+        if (this.STAGNATION_LIMIT > 0 && this.generation - this.lastImprovement >= this.STAGNATION_LIMIT) {
+            return Termination.STAGNATION;
+        }
+        if (this.EVALUATION_BUDGET > 0 && this.evaluations >= this.EVALUATION_BUDGET) {
+            return Termination.EVALUATION_BUDGET;
+        }
+        if (this.TIME_LIMIT_MS > 0 && System.nanoTime() - this.startNanos >= this.TIME_LIMIT_MS * 1_000_000) {
+            return Termination.TIME_LIMIT;
+        }
+        return null;
+    }
 
-        return this.findFittestGenome(this.population);
+    /**
+     * ensures: returns the fittest genomes of the population without reordering
+     * the population
+     * requires: the genomes are copied, such as with a codec, before the next
+     * generation, which may recycle them
+     * 
+     * @param count the number of genomes to return
+     * @return the fittest count genomes, in no particular order
+     */
+    public ArrayList<T> emigrants(int count) {
+        ArrayList<T> candidates = new ArrayList<T>(this.population);
+        count = Math.min(count, candidates.size());
+        this.partialSort(candidates, count);
+        return new ArrayList<T>(candidates.subList(0, count));
     }
 
     /**
-     * ensures: validates and instantiates the constants from the config file
+     * ensures: replaces the least fit genomes of the population with the given
+     * migrants and updates the statistics of the current generation
+     * requires: the migrants are evaluated and belong to no other population,
+     * copies rather than the genomes of another island
      * 
-     * @param configFileName the path of the config file to use
+     * @param migrants the genomes joining the population
      */
-    private void verifyConstants(String configFileName) {
-        PropParser.load(configFileName);
+    public void immigrate(List<T> migrants) {
+        int arrivals = Math.min(migrants.size(), this.population.size());
+        if (arrivals == 0) {
+            return;
+        }
+        int survivors = this.population.size() - arrivals;
+        if (survivors > 0) {
+            this.partialSort(this.population, survivors);
+        }
+        for (int i = 0; i < arrivals; i++) {
+            this.population.set(survivors + i, migrants.get(i));
+        }
+        this.updateStatistics();
+    }
 
-        this.MAX_POPULATION_SIZE = Integer.parseInt(PropParser.getProperty("population.size"));
-        this.ELITE_COUNT = Integer.parseInt(PropParser.getProperty("elite.count"));
-        this.MUTATION_RATE = Double.parseDouble(PropParser.getProperty("mutation.rate"));
-        this.FITNESS_THRESHOLD = Double.parseDouble(PropParser.getProperty("fitness.threshold"));
-        String selectionMethod = PropParser.getProperty("selection.method").trim();
+    /**
+     * ensures: validates and instantiates the constants from the config
+     * 
+     * @param config the settings to use
+     */
+    private void verifyConstants(GAConfig config) {
+        this.MAX_POPULATION_SIZE = config.getInt("population.size", -1);
+        this.ELITE_COUNT = config.getInt("elite.count", -1);
+        this.MUTATION_RATE = config.getDouble("mutation.rate", -1.0);
+        this.FITNESS_THRESHOLD = config.getDouble("fitness.threshold", -1.0);
+        String selectionMethod = config.getString("selection.method", "");
+        this.PARALLELISM = config.getInt("parallelism", this.PARALLELISM);
+        this.CACHE_SIZE = config.getInt("cache.size", this.CACHE_SIZE);
+        this.DEDUPLICATE_CHILDREN = config.getBoolean("cache.deduplicate", this.DEDUPLICATE_CHILDREN);
+        this.MEASURE_DIVERSITY = config.getBoolean("statistics.diversity", this.MEASURE_DIVERSITY);
+        String evaluationMode = config.get("evaluation.mode");
+        if (evaluationMode != null) {
+            switch (evaluationMode.toLowerCase()) {
+                case "concurrent":
+                    this.CONCURRENT_EVALUATION = true;
+                    break;
+                case "serial":
+                    this.CONCURRENT_EVALUATION = false;
+                    break;
+                default:
+                    System.out.println("Invalid evaluation mode chosen. Serial evaluation will be used.");
+                    break;
+            }
+        }
+        this.EVALUATION_CONCURRENCY = config.getInt("evaluation.concurrency", this.EVALUATION_CONCURRENCY);
+        this.EVALUATION_TIMEOUT_MS = config.getLong("evaluation.timeout.ms", this.EVALUATION_TIMEOUT_MS);
+        this.RECYCLE_GENOMES = config.getBoolean("genome.recycling", this.RECYCLE_GENOMES);
+        this.CHECKPOINT_INTERVAL = config.getInt("checkpoint.interval", this.CHECKPOINT_INTERVAL);
+        this.CHECKPOINT_PATH = config.get("checkpoint.path");
+        this.METRICS_JMX = config.getBoolean("metrics.jmx", this.METRICS_JMX);
+        this.METRICS_SUMMARY_INTERVAL = config.getInt("metrics.summary.interval", this.METRICS_SUMMARY_INTERVAL);
+        this.HALL_OF_FAME_SIZE = config.getInt("hall.of.fame.size", this.HALL_OF_FAME_SIZE);
+        this.STAGNATION_LIMIT = config.getInt("termination.stagnation", this.STAGNATION_LIMIT);
+        this.TIME_LIMIT_MS = config.getLong("termination.time.ms", this.TIME_LIMIT_MS);
+        this.EVALUATION_BUDGET = config.getLong("termination.evaluations", this.EVALUATION_BUDGET);
+        String surrogateModel = config.get("surrogate.model");
+        if (surrogateModel != null) {
+            switch (surrogateModel.toLowerCase()) {
+                case "knn":
+                    this.surrogate = new NearestNeighbourSurrogate(config.getInt("surrogate.neighbours", 5),
+                            NearestNeighbourSurrogate.Distance.valueOf(
+                                    config.getString("surrogate.distance", "euclidean").toUpperCase()),
+                            config.getInt("surrogate.archive.size",
+                                    10 * config.getInt("population.size", 100)));
+                    break;
+                case "linear":
+                    this.surrogate = new LinearSurrogate(config.getDouble("surrogate.ridge", 1e-3));
+                    break;
+                default:
+                    System.out.println("Invalid surrogate model chosen. Every child will be evaluated.");
+                    break;
+            }
+        }
+        this.SURROGATE_OVERSAMPLING = config.getDouble("surrogate.oversampling", this.SURROGATE_OVERSAMPLING);
+        this.SURROGATE_EXACT_FRACTION = config.getDouble("surrogate.exact.fraction", this.SURROGATE_EXACT_FRACTION);
+        this.SURROGATE_RANDOM_FRACTION = config.getDouble("surrogate.random.fraction",
+                this.SURROGATE_RANDOM_FRACTION);
+        this.SURROGATE_WARMUP = config.getLong("surrogate.warmup", this.SURROGATE_WARMUP);
+        if ((this.SURROGATE_OVERSAMPLING != -1.0 && this.SURROGATE_OVERSAMPLING < 1.0)
+                || !(this.SURROGATE_EXACT_FRACTION > 0.0) || this.SURROGATE_EXACT_FRACTION > 1.0
+                || this.SURROGATE_RANDOM_FRACTION < 0.0 || this.SURROGATE_RANDOM_FRACTION > 1.0) {
+            throw new IllegalArgumentException("surrogate.oversampling must be at least 1, surrogate.exact.fraction "
+                    + "in (0, 1] and surrogate.random.fraction in [0, 1]");
+        }
 
         if (this.MAX_POPULATION_SIZE == -1) {
             System.out.println("Constant POPULATION_SIZE was not set. Default of 100 will be used");
@@ -130,114 +686,246 @@ public class GeneticAlgorithm<T extends Genome> {
             System.out.println("Constant FITNESS_THRESHOLD was not set. Algorithm will not stop early");
             this.FITNESS_THRESHOLD = Double.MAX_VALUE;
         }
+        if (this.SURROGATE_WARMUP == -1) {
+            this.SURROGATE_WARMUP = this.MAX_POPULATION_SIZE;
+        }
+        // the surrogate must pass on enough children to fill the population, or
+        // parents would silently take the places of the children screened out
+        double evaluatedFraction = this.SURROGATE_EXACT_FRACTION
+                + (1.0 - this.SURROGATE_EXACT_FRACTION) * this.SURROGATE_RANDOM_FRACTION;
+        double survivingFraction = (double) (this.MAX_POPULATION_SIZE - this.ELITE_COUNT) / this.MAX_POPULATION_SIZE;
+        if (this.SURROGATE_OVERSAMPLING == -1.0) {
+            this.SURROGATE_OVERSAMPLING = Math.max(1.0, survivingFraction / evaluatedFraction);
+        } else if (this.SURROGATE_OVERSAMPLING * evaluatedFraction < survivingFraction) {
+            throw new IllegalArgumentException("surrogate.oversampling of " + this.SURROGATE_OVERSAMPLING
+                    + " leaves too few children to evaluate for the population, it must be at least "
+                    + survivingFraction / evaluatedFraction + " with these fractions");
+        }
 
         switch (selectionMethod.toLowerCase()) {
-            // case "PROPORTIONAL":
-            // this.SELECTION_METHOD = this::selectProportional;
-            // break;
+            case "proportional":
             case "roulette":
-                this.SELECTION_METHOD = this::selectRoulette;
+                this.SELECTION_METHOD = new ProportionalSelection();
                 break;
-            case "truncation":
-                this.SELECTION_METHOD = this::selectTruncation;
+            case "sus":
+                this.SELECTION_METHOD = new StochasticUniversalSampling();
+                break;
+            case "tournament":
+                this.SELECTION_METHOD = new TournamentSelection(config.getInt("tournament.size", 2));
                 break;
             case "ranked":
-                this.SELECTION_METHOD = this::selectRanked;
+                this.SELECTION_METHOD = new LinearRankSelection(config.getDouble("selection.pressure", 2.0));
+                break;
+            case "uniform":
+                this.SELECTION_METHOD = new UniformSelection();
+                break;
+            case "truncation":
+                this.SELECTION_METHOD = new TruncationSelection(config.getDouble("truncation.fraction", 0.5));
                 break;
-            // case "TOURNAMENT":
-            // this.SELECTION_METHOD = this::selectTournament;
-            // break;
             default: {
-                this.SELECTION_METHOD = this::selectTruncation;
+                this.SELECTION_METHOD = new TruncationSelection(0.5);
                 System.out.println("Invalid (or blank) selection method chosen. Truncation will be used.");
                 break;
             }
         }
     }
 
-    // private ArrayList<T> selectProportional(ArrayList<T> genomes) {
-    // return null;
-    // }
-
     /**
-     * ensures: uses roulette selection to produce the next generation of genomes
+     * ensures: draws pairs of parents with the selection method and mates them
+     * until the population is refilled
      * 
-     * @param genomes the parents to produce the next generation
-     * @return the next generation in an ArrayList
+     * @return the children, or an empty list if the matings were scheduled on the
+     *         breeder
      */
-    private ArrayList<T> selectRoulette(ArrayList<T> genomes) {
-        ArrayList<Genome> children = new ArrayList<Genome>();
+    private ArrayList<T> produceChildren() {
+        int count = this.MAX_POPULATION_SIZE;
+        if (this.surrogate != null && this.surrogate.observations() >= this.SURROGATE_WARMUP
+                && this.childrenDeferred) {
+            // breeding is cheap next to evaluating, give the surrogate more to choose from
+            count = (int) Math.ceil(count * this.SURROGATE_OVERSAMPLING);
+        }
+        ArrayList<Genome> children = new ArrayList<Genome>(count + 1);
+        int size = this.population.size();
+        this.SELECTION_METHOD.prepare(this.population, count + 1, this.rand);
 
-        for (int i = 0; i < this.MAX_POPULATION_SIZE; i += 2) {
-            // we just select random indexes in the list for reproduction
-            int firstParent = rand.nextInt(this.population.size());
-            int secondParent = rand.nextInt(this.population.size() - 1);
-            if (firstParent == secondParent) {
-                secondParent++; // ensure we don't end up using the same parent twice
+        for (int i = 0; i < count; i += 2) {
+            int firstParent = this.SELECTION_METHOD.select(this.rand);
+            int secondParent = this.SELECTION_METHOD.select(this.rand);
+            // redraw a few times so a genome rarely mates with itself, but never
+            // loop forever when one genome holds all the weight
+            for (int retry = 0; secondParent == firstParent && size > 1 && retry < MAX_PARENT_REDRAWS; retry++) {
+                secondParent = this.SELECTION_METHOD.select(this.rand);
             }
+            this.lap(GenerationMetrics.Phase.SELECTION);
 
-            children.addAll(this.population.get(firstParent).crossover(this.population.get(secondParent)));
+            this.mate(children, this.population.get(firstParent), this.population.get(secondParent));
+            this.lap(GenerationMetrics.Phase.CROSSOVER);
         }
 
         return (ArrayList<T>) children;
     }
 
     /**
-     * ensures: uses ranked selection to produce the next generation of genomes
+     * ensures: crosses over the two parents and adds their children to the list,
+     * or schedules the mating when breeding in parallel
      * 
-     * @param genomes the parents to produce the next generation
-     * @return the next generation in an ArrayList
+     * @param children the list the children are added to
+     * @param mother   the first parent
+     * @param father   the second parent
      */
-    private ArrayList<T> selectRanked(ArrayList<T> genomes) {
-        // sort the genomes so we can use their rank
-        genomes.sort(Genome::compareTo);
-        ArrayList<Genome> children = new ArrayList<Genome>();
+    private void mate(ArrayList<Genome> children, T mother, T father) {
+        T firstChild = null;
+        T secondChild = null;
+        if (this.retired != null && this.retired.size() >= 2) {
+            firstChild = this.retired.pop();
+            secondChild = this.retired.pop();
+        }
 
-        for (int i = 0; i < this.MAX_POPULATION_SIZE; i += 2) {
-            // we need to assign each index a probability out of the sum from 1 to the
-            // number of genomes
-            // let x be a random variable between 0 (inclusive) and n(n+1)/2 (exclusive)
-            // the function index = sqrt(2x + 1/4) - 1/2 maps x to an index in the list with
-            // the right probabilities
-            int firstParent = rand.nextInt((this.population.size() * (this.population.size() + 1)) >> 1);
-            firstParent = (int) (Math.sqrt((firstParent << 1) + 0.25) - 0.5);
+        if (this.breeder != null) {
+            this.breeder.schedule(mother, father, this.rand.nextLong(), firstChild, secondChild);
+        } else if (firstChild != null && mother.crossoverInto(father, firstChild, secondChild, this.rand)) {
+            children.add(firstChild);
+            children.add(secondChild);
+        } else {
+            if (firstChild != null) {
+                this.retired = null; // the genome does not support recycling, stop collecting
+            }
+            children.addAll(mother.crossover(father, this.rand));
+        }
+    }
 
-            // use the population size - 1 as if we removed the first parent
-            int secondParent = rand.nextInt((this.population.size() * (this.population.size() - 1)) >> 1);
-            secondParent = (int) (Math.sqrt((firstParent << 1) + 0.25) - 0.5);
+    /**
+     * ensures: collects the genomes of the old population and the children that
+     * did not make it into the next generation, unless they are pinned
+     * 
+     * @param nextGeneration the genomes of the next generation
+     * @param children       the children evaluated this generation
+     * @param discarded      the children the surrogate screened out
+     */
+    private void retire(ArrayList<T> nextGeneration, ArrayList<T> children, ArrayList<T> discarded) {
+        for (T genome : nextGeneration) {
+            genome.survivedGeneration = this.generation;
+        }
+        int capacity = this.MAX_POPULATION_SIZE << 1;
+        for (ArrayList<T> candidates : List.of(this.population, children, discarded)) {
+            for (T genome : candidates) {
+                if (this.retired.size() == capacity) {
+                    return;
+                }
+                if (genome.survivedGeneration != this.generation && !genome.isPinned()) {
+                    // marked so a genome listed twice is only retired once
+                    genome.survivedGeneration = this.generation;
+                    this.retired.push(genome);
+                }
+            }
+        }
+    }
 
-            if (firstParent == secondParent) {
-                secondParent++; // ensure we don't end up using the same parent twice
+    /**
+     * ensures: ranks the children awaiting evaluation with the surrogate and
+     * returns those to evaluate exactly: the most promising, and a few of the
+     * rest at random so the surrogate keeps learning about them, and always
+     * enough of them to fill the population. children already evaluated or with
+     * a cached fitness are returned without screening. until the surrogate has
+     * seen surrogate.warmup genomes every child is returned
+     * 
+     * @param children  the children bred this generation
+     * @param discarded the list the children screened out are added to
+     * @return the children to evaluate, including those already evaluated
+     */
+    private ArrayList<T> screen(ArrayList<T> children, ArrayList<T> discarded) {
+        int size = children.size();
+        if (size == 0 || this.surrogate.observations() < this.SURROGATE_WARMUP) {
+            return children;
+        }
+        if (this.predictions.length < size) {
+            this.predictions = new double[size];
+            this.candidateOrder = new int[size];
+        }
+
+        ArrayList<T> screened = new ArrayList<T>(size);
+        int candidates = 0;
+        for (int i = 0; i < size; i++) {
+            T child = children.get(i);
+            if (child.isEvaluated()) {
+                screened.add(child); // nothing to save
+                continue;
+            }
+            if (this.cache != null) {
+                Object key = child.contentKey();
+                if (key != null && this.cache.contains(key)) {
+                    screened.add(child); // evaluateAll takes its fitness from the cache
+                    continue;
+                }
             }
+            this.predictions[i] = this.surrogate.predict(this.genesOf(child));
+            this.candidateOrder[candidates++] = i;
+        }
 
-            children.addAll(this.population.get(firstParent).crossover(this.population.get(secondParent)));
+        int exact = (int) Math.ceil(candidates * this.SURROGATE_EXACT_FRACTION);
+        int random = (int) Math.round((candidates - exact) * this.SURROGATE_RANDOM_FRACTION);
+        int wanted = Math.min(candidates, this.SURVIVING_CHILDREN - screened.size());
+        if (exact + random < wanted) {
+            exact = wanted - random; // rounding left the population short
+        }
+        TopK.select(this.candidateOrder, this.predictions, candidates, exact);
+        for (int i = exact; i < exact + random; i++) {
+            int pick = i + this.rand.nextInt(candidates - i);
+            int temp = this.candidateOrder[i];
+            this.candidateOrder[i] = this.candidateOrder[pick];
+            this.candidateOrder[pick] = temp;
+        }
+        for (int i = 0; i < candidates; i++) {
+            T child = children.get(this.candidateOrder[i]);
+            if (i < exact + random) {
+                screened.add(child);
+            } else {
+                discarded.add(child);
+            }
         }
+        return screened;
+    }
 
-        return (ArrayList<T>) children;
+    /**
+     * ensures: replaces what the surrogate learned with the state from the
+     * checkpoint resumed from, which is used only once
+     */
+    private void restoreSurrogate() {
+        try {
+            this.surrogate.read(new DataInputStream(new ByteArrayInputStream(this.surrogateState)));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not restore the surrogate from the checkpoint", e);
+        }
+        this.surrogateState = null;
     }
 
     /**
-     * ensures: uses truncation selection to produce the next generation of genomes
+     * ensures: teaches the surrogate the fitness of every evaluated genome
      * 
-     * @param genomes the parents to produce the next generation
-     * @return the next generation in an ArrayList
+     * @param genomes the genomes to learn from
      */
-    private ArrayList<T> selectTruncation(ArrayList<T> genomes) {
-        // select only the top 50% of genomes
-        int numParents = genomes.size() >> 1;
-        this.partialSort(genomes, numParents);
-        ArrayList<T> parents = new ArrayList<T>(numParents);
-
-        // add the fittest 50% of genomes
-        parents.addAll(genomes.subList(0, numParents));
-
-        // roulette selection on the selected parents
-        return this.selectRoulette(parents);
+    private void observe(ArrayList<T> genomes) {
+        for (T genome : genomes) {
+            if (genome.isEvaluated()) {
+                this.surrogate.observe(this.genesOf(genome), genome.fitness());
+            }
+        }
     }
 
-    // private ArrayList<T> selectTournament(ArrayList<T> genomes) {
-    // return null;
-    // }
+    /**
+     * ensures: copies the genes of a genome into the array reused for the
+     * surrogate
+     * 
+     * @param genome the genome
+     * @return the reused array holding its genes
+     */
+    private double[] genesOf(T genome) {
+        if (this.surrogateGenes.length != genome.size()) {
+            this.surrogateGenes = new double[genome.size()];
+        }
+        genome.copyGenesTo(this.surrogateGenes, 0);
+        return this.surrogateGenes;
+    }
 
     /**
      * ensures: finds the fittest genome in a given population
@@ -245,7 +933,7 @@ public class GeneticAlgorithm<T extends Genome> {
      * @param genomes the population to be searched
      * @return the fittest genome
      */
-    private T findFittestGenome(ArrayList<T> genomes) {
+    T findFittestGenome(ArrayList<T> genomes) {
         T fittest = genomes.get(0);
         int index = 0;
         for (int i = 0; i < genomes.size(); i++) {
@@ -269,55 +957,275 @@ public class GeneticAlgorithm<T extends Genome> {
         }
     }
 
+    /**
+     * ensures: evaluates every genome whose evaluation is pending, reusing cached
+     * fitness values where possible and optionally removing duplicates
+     * 
+     * duplicates of a pending genome are removed from the list while it holds more
+     * than the given number of genomes, the rest share the fitness of the first
+     * copy without being evaluated again
+     * 
+     * @param genomes the genomes to evaluate
+     * @param keep    the number of genomes that must remain in the list
+     */
+    private void evaluateAll(ArrayList<T> genomes, int keep) {
+        boolean keyed = this.cache != null || this.DEDUPLICATE_CHILDREN;
+        HashMap<Object, T> pendingByKey = this.DEDUPLICATE_CHILDREN ? new HashMap<Object, T>() : null;
+        ArrayList<T> pending = new ArrayList<T>();
+        ArrayList<Object> pendingKeys = new ArrayList<Object>();
+        ArrayList<T> duplicates = new ArrayList<T>();
+        ArrayList<T> originals = new ArrayList<T>();
+        int removable = genomes.size() - keep;
+
+        int entering = genomes.size();
+        int kept = 0;
+        int eager = 0;
+        for (int i = 0; i < genomes.size(); i++) {
+            T genome = genomes.get(i);
+            if (genome.isEvaluated()) {
+                eager++; // evaluated when it was created
+            }
+            Object key = null;
+            if (!genome.isEvaluated() && keyed) {
+                key = genome.contentKey();
+            }
+
+            if (key == null) {
+                if (!genome.isEvaluated()) {
+                    pending.add(genome);
+                    pendingKeys.add(null);
+                }
+            } else {
+                Double cached = this.cache == null ? null : this.cache.get(key);
+                T original = pendingByKey == null ? null : pendingByKey.putIfAbsent(key, genome);
+                if (cached != null) {
+                    genome.assignFitness(cached);
+                } else if (original == null) {
+                    pending.add(genome);
+                    pendingKeys.add(key);
+                } else if (removable > 0) {
+                    removable--;
+                    continue; // drop the duplicate
+                } else {
+                    duplicates.add(genome);
+                    originals.add(original);
+                }
+            }
+            genomes.set(kept++, genome);
+        }
+        genomes.subList(kept, genomes.size()).clear();
+        this.childrenDeferred = eager < entering;
+
+        if (this.batchEvaluator != null) {
+            this.evaluateBatch(pending);
+        } else if (this.evaluator != null) {
+            ArrayList<Genome> timedOut = this.evaluator.evaluate(pending);
+            if (!timedOut.isEmpty()) {
+                this.dropTimedOut(genomes, pending, pendingKeys, duplicates, originals, timedOut);
+            }
+        } else if (this.breeder == null) {
+            for (T genome : pending) {
+                genome.evaluate();
+            }
+        } else {
+            this.breeder.evaluate(pending);
+        }
+
+        this.evaluations += pending.size() + eager;
+        if (this.metrics != null) {
+            this.metrics.evaluated(pending.size() + eager);
+        }
+        if (this.cache != null) {
+            for (int i = 0; i < pending.size(); i++) {
+                if (pendingKeys.get(i) != null) {
+                    this.cache.put(pendingKeys.get(i), pending.get(i).fitness());
+                }
+            }
+        }
+        for (int i = 0; i < duplicates.size(); i++) {
+            duplicates.get(i).assignFitness(originals.get(i).fitness());
+        }
+    }
+
+    /**
+     * ensures: evaluates the genomes with one call to the batch evaluator
+     * 
+     * @param genomes the genomes to evaluate
+     */
+    private void evaluateBatch(ArrayList<T> genomes) {
+        int rows = genomes.size();
+        if (rows == 0) {
+            return;
+        }
+        int columns = genomes.get(0).size();
+        if (this.batchGenes.length < (long) rows * columns) {
+            this.batchGenes = new double[Math.multiplyExact(rows, columns)];
+        }
+        if (this.batchFitness.length < rows) {
+            this.batchFitness = new double[rows];
+        }
+        for (int row = 0; row < rows; row++) {
+            T genome = genomes.get(row);
+            if (genome.size() != columns) {
+                throw new IllegalStateException("Batch evaluation needs genomes of one size but got sizes "
+                        + columns + " and " + genome.size());
+            }
+            genome.copyGenesTo(this.batchGenes, row * columns);
+        }
+
+        this.batchEvaluator.evaluate(this.batchGenes, rows, columns, this.batchFitness);
+        for (int row = 0; row < rows; row++) {
+            genomes.get(row).assignFitness(this.batchFitness[row]);
+        }
+    }
+
+    /**
+     * ensures: removes the genomes whose evaluation timed out, and the duplicates
+     * that would have shared their fitness, from every list evaluateAll keeps
+     * 
+     * @param genomes     the genomes being evaluated
+     * @param pending     the genomes that were evaluated
+     * @param pendingKeys the cache keys of the pending genomes
+     * @param duplicates  the genomes sharing the fitness of an original
+     * @param originals   the original of each duplicate
+     * @param timedOut    the genomes that timed out
+     */
+    private void dropTimedOut(ArrayList<T> genomes, ArrayList<T> pending, ArrayList<Object> pendingKeys,
+            ArrayList<T> duplicates, ArrayList<T> originals, ArrayList<Genome> timedOut) {
+        Set<Genome> dropped = Collections.newSetFromMap(new IdentityHashMap<Genome, Boolean>());
+        dropped.addAll(timedOut);
+        for (int i = duplicates.size() - 1; i >= 0; i--) {
+            if (dropped.contains(originals.get(i))) {
+                dropped.add(duplicates.get(i));
+                duplicates.remove(i);
+                originals.remove(i);
+            }
+        }
+        for (int i = pending.size() - 1; i >= 0; i--) {
+            if (dropped.contains(pending.get(i))) {
+                pending.remove(i);
+                pendingKeys.remove(i);
+            }
+        }
+        genomes.removeIf(dropped::contains);
+    }
+
+    /**
+     * ensures: computes the statistics of the current population and updates the
+     * fittest genome so far and the hall of fame with it
+     */
+    private void updateStatistics() {
+        this.statistics = PopulationStatistics.of(this.population, this.generation, this.MEASURE_DIVERSITY);
+        T fittest = this.population.get(this.statistics.fittestIndex());
+        if (this.bestSoFar == null || fittest.fitness() > this.bestSoFar.fitness()) {
+            fittest.pin(); // kept after it leaves the population
+            this.bestSoFar = fittest;
+            this.lastImprovement = this.generation;
+        }
+        if (this.hallOfFame != null) {
+            this.hallOfFame.offerAll(this.population);
+        }
+    }
+
+    /**
+     * ensures: encodes the current state and hands it to the checkpoint writer
+     */
+    private void checkpoint() {
+        try {
+            ArrayList<T> hallOfFame = this.hallOfFame == null ? new ArrayList<T>() : this.hallOfFame.members();
+            byte[] surrogateState = null;
+            if (this.surrogate != null) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(bytes);
+                this.surrogate.write(out);
+                out.flush();
+                surrogateState = bytes.toByteArray();
+            }
+            Checkpoint<T> state = new Checkpoint<T>(this.generation, this.population, this.rand, this.evaluations,
+                    this.lastImprovement, System.nanoTime() - this.startNanos, this.bestSoFar, hallOfFame,
+                    this.childrenDeferred, surrogateState);
+            this.checkpointWriter.save(Checkpoint.encode(state, this.checkpointCodec));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not encode the checkpoint", e);
+        }
+    }
+
+    /**
+     * ensures: adds the time since the last lap to a phase when metrics are
+     * recorded
+     * 
+     * @param phase the phase that just ended
+     */
+    private void lap(GenerationMetrics.Phase phase) {
+        if (this.metrics != null) {
+            this.metrics.lap(phase);
+        }
+    }
+
     /**
      * ensures: logs all requested data for the current generation
      */
     private void logData() {
         for (Logger<T> logger : this.loggers) {
-            logger.log(this.population, this.generation);
+            logger.log(this.population, this.generation, this.statistics);
         }
     }
 
     /**
      * ensures: moves the fittest n genomes in a list to the front of the list
      * 
+     * the selection runs on an array of the fitness values and an array of
+     * indices, and only the resulting order is applied to the list. very large
+     * lists are partitioned on the breeder's threads when there is a breeder, and
+     * on this thread otherwise
+     * 
      * @param genomes     the list of genomes
      * @param numToSelect the number of genomes to move to the front
      */
-    private void partialSort(ArrayList<T> genomes, int numToSelect) {
+    void partialSort(ArrayList<T> genomes, int numToSelect) {
+        int size = genomes.size();
+        if (numToSelect <= 0 || numToSelect >= size) {
+            return;
+        }
         // Ensures linear time for trivial case
         if (numToSelect == 1) {
             this.findFittestGenome(genomes);
             return;
         }
 
-        int left = 0, right = genomes.size() - 1; // initialize the bounds of the array
-
-        while (left != right) { // condition won't ever be met but is there for safety
-            int pivotIndex = left + rand.nextInt(right - left + 1); // randomized pivot to minimize worst case frequency
-            T pivot = genomes.get(pivotIndex); // store the pivot individual for comparisons
-            Collections.swap(genomes, pivotIndex, right); // move the pivot to the right of the array
-
-            int nextSmaller = left; // running index to keep track of where we need to swap
-            for (int i = nextSmaller; i < right; i++) { // stops before it reaches the pivot
-                if (genomes.get(i).compareTo(pivot) >= 0) { // we want the fittest individuals at the front
-                    Collections.swap(genomes, nextSmaller++, i); // swap the 2 elements and increment the pointer
-                }
-            }
-            Collections.swap(genomes, nextSmaller, right); // put the pivot in its sorted position
+        this.sortKeys = SelectionMethod.fitnessOf(genomes, this.sortKeys);
+        if (this.sortOrder.length < size) {
+            this.sortOrder = new int[size];
+        }
+        for (int i = 0; i < size; i++) {
+            this.sortOrder[i] = i;
+        }
+        if (this.breeder != null && size >= TopK.PARALLEL_THRESHOLD) {
+            TopK.selectParallel(this.sortOrder, this.sortKeys, size, numToSelect, this.breeder.executor());
+        } else {
+            TopK.select(this.sortOrder, this.sortKeys, size, numToSelect);
+        }
 
-            if (nextSmaller + 1 < numToSelect) { // iterate on the less fit partition if it has too few members
-                left = nextSmaller + 1;
-            } else if (nextSmaller > numToSelect) { // iterate on the fitter partition if it has too many members
-                right = nextSmaller - 1;
-            } else {
-                return; // stop if the fitter partition is the right size
-            }
+        for (int i = 0; i < size; i++) {
+            this.sortedGenomes.add(genomes.get(this.sortOrder[i]));
+        }
+        for (int i = 0; i < size; i++) {
+            genomes.set(i, this.sortedGenomes.get(i));
         }
+        this.sortedGenomes.clear(); // no stale references to genomes that may be recycled
     }
 
-    @FunctionalInterface
-    private interface SelectionMethod<T> {
-        ArrayList<T> produceNextGeneration(ArrayList<T> genomes);
+    /**
+     * the reasons the algorithm stops before running every generation asked for
+     */
+    public enum Termination {
+        // the fittest genome reached fitness.threshold
+        FITNESS_THRESHOLD,
+        // the fittest genome so far has not improved for termination.stagnation generations
+        STAGNATION,
+        // termination.evaluations evaluations have been carried out
+        EVALUATION_BUDGET,
+        // termination.time.ms milliseconds have passed since the algorithm was created
+        TIME_LIMIT
     }
 }
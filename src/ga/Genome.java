@@ -10,6 +10,11 @@ public abstract class Genome implements Comparable<Genome> {
     protected int size;
     protected double fitness;
     protected Random rand;
+    private boolean evaluated;
+    // referenced outside the population, so never recycled
+    private boolean pinned;
+    // the generation of the population this genome last survived into
+    int survivedGeneration = -1;
 
     /**
      * ensures: instantiates an instance of a genome
@@ -21,18 +26,97 @@ public abstract class Genome implements Comparable<Genome> {
         this.rand = rand;
         this.size = size;
         this.fitness = 0;
+        this.evaluated = true;
     };
 
     /**
-     * ensures: returns the fitness of the individual
+     * ensures: returns the fitness of the individual, evaluating it first if its
+     * evaluation was deferred
      * requires: each genome is responsible for keeping its fitness up to date
      * 
      * @return the fitness of this genome
      */
     public double fitness() {
+        this.evaluate();
         return this.fitness;
     }
 
+    /**
+     * ensures: returns whether the fitness of this genome is up to date
+     * 
+     * @return false if the evaluation of this genome is pending
+     */
+    public boolean isEvaluated() {
+        return this.evaluated;
+    }
+
+    /**
+     * ensures: calculates the fitness of this genome if its evaluation is pending
+     */
+    public void evaluate() {
+        if (!this.evaluated) {
+            this.calculateFitness();
+            this.evaluated = true;
+        }
+    }
+
+    /**
+     * ensures: sets the fitness of this genome without evaluating it, used when
+     * the fitness is already known (for example from a cache)
+     * 
+     * @param fitness the fitness of this genome
+     */
+    public void assignFitness(double fitness) {
+        this.fitness = fitness;
+        this.evaluated = true;
+    }
+
+    /**
+     * ensures: marks the fitness of this genome as out of date so it is
+     * calculated when next needed
+     * 
+     * genomes with expensive fitness functions call this from their constructors
+     * and mutate instead of calculating the fitness themselves, which lets the
+     * genetic algorithm skip, cache or batch their evaluation
+     */
+    protected void invalidateFitness() {
+        this.evaluated = false;
+    }
+
+    /**
+     * ensures: calculates and stores the fitness of this genome
+     * requires: genomes that call invalidateFitness must override this
+     */
+    protected void calculateFitness() {
+        throw new UnsupportedOperationException(
+                this.getClass().getName() + " defers its evaluation but does not override calculateFitness");
+    }
+
+    /**
+     * ensures: returns an immutable snapshot of the genes with content based
+     * equals and hashCode, or null if this genome cannot be memoized
+     * 
+     * genomes with equal keys must have equal fitness
+     * 
+     * @return the key identifying the genes of this genome
+     */
+    public Object contentKey() {
+        return null;
+    }
+
+    /**
+     * ensures: writes the genes of this genome as doubles into the destination,
+     * starting at the offset, for batch evaluation
+     * requires: genomes evaluated by a BatchEvaluator must override this
+     * 
+     * @param destination the array to write size() genes into
+     * @param offset      the index of the first gene
+     */
+    public void copyGenesTo(double[] destination, int offset) {
+        throw new UnsupportedOperationException(
+                this.getClass().getName() + " does not support batch evaluation");
+    }
+
     /**
      * ensures: returns the size of this genome
      * 
@@ -44,9 +128,9 @@ public abstract class Genome implements Comparable<Genome> {
 
     @Override
     public int compareTo(Genome other) {
-        if (this.fitness > other.fitness()) {
+        if (this.fitness() > other.fitness()) {
             return 1;
-        } else if (this.fitness < other.fitness()) {
+        } else if (this.fitness() < other.fitness()) {
             return -1;
         }
         return 0;
@@ -58,5 +142,82 @@ public abstract class Genome implements Comparable<Genome> {
     // every genome needs the ability to mutate itself
     public abstract void mutate(double mutationRate);
 
+    /**
+     * ensures: crosses this genome with another, drawing all randomness from the
+     * given source instead of the genome's own
+     * requires: genomes bred in parallel must override this for runs to be
+     * repeatable regardless of thread count
+     * 
+     * @param other the genome to crossover with
+     * @param rand  the source of randomness to use
+     * @return the children produced
+     */
+    public ArrayList<Genome> crossover(Genome other, Random rand) {
+        return this.crossover(other);
+    }
+
+    /**
+     * ensures: mutates this genome, drawing all randomness from the given source
+     * instead of the genome's own
+     * requires: genomes mutated in parallel must override this for runs to be
+     * repeatable regardless of thread count
+     * 
+     * @param mutationRate the probability of mutating each gene
+     * @param rand         the source of randomness to use
+     */
+    public void mutate(double mutationRate, Random rand) {
+        this.mutate(mutationRate);
+    }
+
+    /**
+     * ensures: crosses this genome with another like crossover(other, rand), but
+     * overwrites two retired genomes with the children instead of allocating new
+     * ones, and returns false without drawing any randomness if it cannot
+     * requires: genomes that support recycling must override this, producing the
+     * same children from the same randomness as crossover
+     * 
+     * @param other       the genome to crossover with
+     * @param firstChild  a retired genome to become the first child
+     * @param secondChild a retired genome to become the second child
+     * @param rand        the source of randomness to use
+     * @return true if the retired genomes now hold the children
+     */
+    public boolean crossoverInto(Genome other, Genome firstChild, Genome secondChild, Random rand) {
+        return false;
+    }
+
+    /**
+     * ensures: marks this genome as referenced outside its population, so it is
+     * never recycled into a child once it leaves the population
+     */
+    public void pin() {
+        this.pinned = true;
+    }
+
+    /**
+     * ensures: returns whether this genome may not be recycled
+     * 
+     * @return true if the genome is pinned
+     */
+    public boolean isPinned() {
+        return this.pinned;
+    }
+
+    /**
+     * ensures: returns a shallow copy of this genome that is neither pinned nor
+     * known to any population, for genomes implementing Cloneable
+     * 
+     * @return the copy
+     * @throws CloneNotSupportedException if the genome does not implement
+     *                                    Cloneable
+     */
+    @Override
+    protected Genome clone() throws CloneNotSupportedException {
+        Genome copy = (Genome) super.clone();
+        copy.pinned = false;
+        copy.survivedGeneration = -1;
+        return copy;
+    }
+
     public abstract String toString();
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package ga;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * a compact binary encoding of the genes of one genome type, used to send
+ * genomes between processes and to save them to disk
+ *
+ * the fitness is stored separately by the caller, so codecs only encode genes
+ */
+public interface GenomeCodec<T extends Genome> {
+
+    /**
+     * ensures: writes the genes of the genome
+     *
+     * @param genome the genome to encode
+     * @param out    the destination
+     * @throws IOException if the destination cannot be written
+     */
+    void write(T genome, DataOutput out) throws IOException;
+
+    /**
+     * ensures: reads a genome written by write
+     *
+     * @param in   the source
+     * @param rand the source of randomness the genome is given
+     * @return the decoded genome
+     * @throws IOException if the source cannot be read or is malformed
+     */
+    T read(DataInput in, Random rand) throws IOException;
+}
@@ -0,0 +1,110 @@
+package ga;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * the fittest distinct genomes seen across all generations, at most capacity of
+ * them
+ *
+ * genomes with equal content keys count as one, and a genome offered again
+ * while it is a member is ignored, so elites surviving many generations take a
+ * single place. members are pinned so genome recycling never overwrites them
+ */
+public class HallOfFame<T extends Genome> {
+    private int capacity;
+    // the least fit member at the head
+    private PriorityQueue<T> members;
+    private HashSet<Object> keys;
+
+    /**
+     * ensures: instantiates an empty hall of fame
+     *
+     * @param capacity the most genomes kept
+     */
+    public HallOfFame(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The hall of fame needs room for at least 1 genome but got " + capacity);
+        }
+        this.capacity = capacity;
+        this.members = new PriorityQueue<T>(capacity);
+        this.keys = new HashSet<Object>(capacity << 1);
+    }
+
+    /**
+     * ensures: adds the genome if it is fitter than the least fit member, or
+     * there is room, and is not a member already
+     *
+     * @param genome the evaluated genome to consider
+     * @return true if the genome was added
+     */
+    public boolean offer(T genome) {
+        // most genomes are rejected here, without computing their content key
+        if (this.members.size() == this.capacity && genome.fitness() <= this.members.peek().fitness()) {
+            return false;
+        }
+        if (!this.keys.add(keyOf(genome))) {
+            return false;
+        }
+        genome.pin();
+        this.members.add(genome);
+        if (this.members.size() > this.capacity) {
+            this.keys.remove(keyOf(this.members.poll()));
+        }
+        return true;
+    }
+
+    /**
+     * ensures: offers every genome of a population
+     *
+     * @param genomes the evaluated genomes to consider
+     */
+    public void offerAll(List<? extends T> genomes) {
+        for (T genome : genomes) {
+            this.offer(genome);
+        }
+    }
+
+    /**
+     * ensures: returns the members, fittest first
+     *
+     * @return a new list of the members
+     */
+    public ArrayList<T> members() {
+        ArrayList<T> members = new ArrayList<T>(this.members);
+        members.sort(Collections.reverseOrder());
+        return members;
+    }
+
+    /**
+     * ensures: returns the number of members
+     *
+     * @return size
+     */
+    public int size() {
+        return this.members.size();
+    }
+
+    /**
+     * ensures: returns the most genomes kept
+     *
+     * @return capacity
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * ensures: returns what identifies a genome among the members
+     *
+     * @param genome the genome
+     * @return its content key, or the genome itself if it has none
+     */
+    private static Object keyOf(Genome genome) {
+        Object key = genome.contentKey();
+        return key == null ? genome : key;
+    }
+}
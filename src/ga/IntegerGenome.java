@@ -0,0 +1,242 @@
+package ga;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * a genome of small integer alleles from 0 to alleleCount - 1, stored one per
+ * byte in a byte[]
+ *
+ * subclasses only provide the fitness function and implement Cloneable, the
+ * standard operators are built in: one point or uniform crossover, and random
+ * reset or creep mutation. children are cloned from a parent and evaluated
+ * lazily, and with genome.recycling they reuse the arrays of retired genomes
+ */
+public abstract class IntegerGenome extends Genome implements Cloneable {
+    protected byte[] genes;
+    protected int alleleCount;
+
+    // the operators, subclasses may change them in their constructor
+    protected Crossover crossoverOperator = Crossover.ONE_POINT;
+    protected Mutation mutationOperator = Mutation.RESET;
+
+    /**
+     * ensures: instantiates a genome with alleles drawn uniformly
+     *
+     * @param length      the number of genes
+     * @param alleleCount the number of values a gene may take, at most 256
+     * @param rand        the source of randomness
+     */
+    public IntegerGenome(int length, int alleleCount, Random rand) {
+        this(new byte[length], alleleCount, rand);
+        for (int gene = 0; gene < length; gene++) {
+            this.genes[gene] = (byte) rand.nextInt(alleleCount);
+        }
+    }
+
+    /**
+     * ensures: instantiates a genome holding the given alleles
+     *
+     * @param genes       the alleles, read as unsigned bytes, which the genome
+     *                    takes ownership of
+     * @param alleleCount the number of values a gene may take, at most 256
+     * @param rand        the source of randomness
+     */
+    public IntegerGenome(byte[] genes, int alleleCount, Random rand) {
+        super(genes.length, rand);
+        if (alleleCount < 2 || alleleCount > 256) {
+            throw new IllegalArgumentException("The allele count must be between 2 and 256 but was " + alleleCount);
+        }
+        this.genes = genes;
+        this.alleleCount = alleleCount;
+        this.invalidateFitness();
+    }
+
+    /**
+     * ensures: returns the fitness of the given alleles
+     *
+     * @param genes the alleles to evaluate, read as unsigned bytes, which must not
+     *              be modified
+     * @return the fitness
+     */
+    protected abstract double fitnessOf(byte[] genes);
+
+    /**
+     * ensures: returns the allele of a gene
+     *
+     * @param gene the index of the gene
+     * @return the allele, from 0 to alleleCount - 1
+     */
+    public int get(int gene) {
+        return this.genes[gene] & 0xFF;
+    }
+
+    /**
+     * ensures: returns the genes of this genome
+     *
+     * @return the alleles as unsigned bytes, which must not be modified
+     */
+    public byte[] genes() {
+        return this.genes;
+    }
+
+    @Override
+    protected void calculateFitness() {
+        this.fitness = this.fitnessOf(this.genes);
+    }
+
+    @Override
+    public ArrayList<Genome> crossover(Genome other) {
+        return this.crossover(other, this.rand);
+    }
+
+    @Override
+    public ArrayList<Genome> crossover(Genome other, Random rand) {
+        IntegerGenome first = this.copy();
+        IntegerGenome second = this.copy();
+        this.breed((IntegerGenome) other, first, second, rand);
+        ArrayList<Genome> children = new ArrayList<Genome>(2);
+        children.add(first);
+        children.add(second);
+        return children;
+    }
+
+    @Override
+    public boolean crossoverInto(Genome other, Genome firstChild, Genome secondChild, Random rand) {
+        if (other.getClass() != this.getClass() || firstChild.getClass() != this.getClass()
+                || secondChild.getClass() != this.getClass() || other.size() != this.size
+                || firstChild.size() != this.size || secondChild.size() != this.size) {
+            return false;
+        }
+        this.breed((IntegerGenome) other, (IntegerGenome) firstChild, (IntegerGenome) secondChild, rand);
+        return true;
+    }
+
+    @Override
+    public void mutate(double mutationRate) {
+        this.mutate(mutationRate, this.rand);
+    }
+
+    @Override
+    public void mutate(double mutationRate, Random rand) {
+        if (mutationRate <= 0) {
+            return;
+        }
+        boolean changed = false;
+        for (int gene = 0; gene < this.size; gene++) {
+            if (rand.nextDouble() >= mutationRate) {
+                continue;
+            }
+            int allele = this.genes[gene] & 0xFF;
+            int mutated;
+            if (this.mutationOperator == Mutation.CREEP) {
+                mutated = rand.nextBoolean() ? Math.min(allele + 1, this.alleleCount - 1) : Math.max(allele - 1, 0);
+            } else {
+                // any allele but the current one
+                mutated = rand.nextInt(this.alleleCount - 1);
+                if (mutated >= allele) {
+                    mutated++;
+                }
+            }
+            this.genes[gene] = (byte) mutated;
+            changed |= mutated != allele;
+        }
+        if (changed) {
+            this.invalidateFitness();
+        }
+    }
+
+    @Override
+    public Object contentKey() {
+        return ByteBuffer.wrap(this.genes.clone());
+    }
+
+    @Override
+    public void copyGenesTo(double[] destination, int offset) {
+        for (int gene = 0; gene < this.size; gene++) {
+            destination[offset + gene] = this.genes[gene] & 0xFF;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(this.size * 2 + 2).append('[');
+        for (int gene = 0; gene < this.size; gene++) {
+            if (gene > 0) {
+                builder.append(", ");
+            }
+            builder.append(this.genes[gene] & 0xFF);
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * ensures: writes the children of this genome and the other into the given
+     * genomes with the chosen crossover operator
+     *
+     * @param other  the second parent
+     * @param first  the genome to become the first child
+     * @param second the genome to become the second child
+     * @param rand   the source of randomness
+     */
+    private void breed(IntegerGenome other, IntegerGenome first, IntegerGenome second, Random rand) {
+        if (this.crossoverOperator == Crossover.UNIFORM) {
+            for (int gene = 0; gene < this.size; gene++) {
+                boolean swap = rand.nextBoolean();
+                byte a = this.genes[gene];
+                byte b = other.genes[gene];
+                first.genes[gene] = swap ? b : a;
+                second.genes[gene] = swap ? a : b;
+            }
+        } else {
+            int crossoverIndex = rand.nextInt(this.size);
+            System.arraycopy(this.genes, 0, first.genes, 0, crossoverIndex);
+            System.arraycopy(other.genes, crossoverIndex, first.genes, crossoverIndex, this.size - crossoverIndex);
+            System.arraycopy(other.genes, 0, second.genes, 0, crossoverIndex);
+            System.arraycopy(this.genes, crossoverIndex, second.genes, crossoverIndex, this.size - crossoverIndex);
+        }
+        first.rand = this.rand;
+        second.rand = this.rand;
+        first.alleleCount = this.alleleCount;
+        second.alleleCount = this.alleleCount;
+        first.invalidateFitness();
+        second.invalidateFitness();
+    }
+
+    /**
+     * ensures: returns a copy of this genome with its own genes
+     *
+     * @return the copy
+     */
+    private IntegerGenome copy() {
+        try {
+            IntegerGenome copy = (IntegerGenome) this.clone();
+            copy.genes = this.genes.clone();
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(this.getClass().getName() + " must implement Cloneable", e);
+        }
+    }
+
+    /**
+     * how two integer genomes are combined
+     */
+    public enum Crossover {
+        // the genes before a random index come from one parent, the rest from the other
+        ONE_POINT,
+        // each gene comes from either parent with equal probability
+        UNIFORM
+    }
+
+    /**
+     * how an allele is changed
+     */
+    public enum Mutation {
+        // replaced by a different allele drawn uniformly
+        RESET,
+        // moved one step up or down, staying within the alleles
+        CREEP
+    }
+}
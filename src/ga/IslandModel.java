@@ -0,0 +1,264 @@
+package ga;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * evolves several populations (islands) in parallel, each on its own thread,
+ * occasionally sending copies of their fittest genomes to each other
+ *
+ * islands never wait for each other. every migrationInterval generations an
+ * island posts its emigrants to the lock free inboxes of its neighbours and
+ * takes in whatever has arrived in its own inbox so far
+ *
+ * migrants are encoded with the codec by the sending island and decoded by the
+ * receiving island with its own Random, so no genome or Random is ever shared
+ * between islands. each island should have its own loggers (or a logger safe to
+ * share between threads) and its own Random
+ */
+public class IslandModel<T extends Genome> {
+    private ArrayList<GeneticAlgorithm<T>> islands;
+    private GenomeCodec<T> codec;
+    // the fitness and encoded genes of every migrant waiting for each island
+    private ArrayList<ConcurrentLinkedQueue<byte[]>> inboxes;
+    private Random[] islandRands;
+    private Topology topology;
+    private int migrationInterval;
+    private int migrantCount;
+
+    /**
+     * ensures: instantiates an island model over the given algorithms
+     *
+     * @param islands           the algorithms to run, one per island
+     * @param codec             the encoding migrants are copied through
+     * @param topology          which islands send migrants to which
+     * @param migrationInterval the number of generations between migrations
+     * @param migrantCount      the number of genomes each island sends per migration
+     * @param rand              the source of randomness for choosing neighbours
+     */
+    public IslandModel(ArrayList<GeneticAlgorithm<T>> islands, GenomeCodec<T> codec, Topology topology,
+            int migrationInterval, int migrantCount, Random rand) {
+        if (migrationInterval < 1) {
+            throw new IllegalArgumentException("The migration interval must be at least 1 generation");
+        }
+        this.islands = islands;
+        this.codec = codec;
+        this.topology = topology;
+        this.migrationInterval = migrationInterval;
+        this.migrantCount = migrantCount;
+        this.inboxes = new ArrayList<ConcurrentLinkedQueue<byte[]>>(islands.size());
+        this.islandRands = new Random[islands.size()];
+        for (int island = 0; island < islands.size(); island++) {
+            this.inboxes.add(new ConcurrentLinkedQueue<byte[]>());
+            // each island chooses its random neighbours with its own generator
+            this.islandRands[island] = new Random(rand.nextLong());
+        }
+    }
+
+    /**
+     * ensures: returns the algorithms running on the islands
+     *
+     * @return the islands
+     */
+    public ArrayList<GeneticAlgorithm<T>> islands() {
+        return this.islands;
+    }
+
+    /**
+     * ensures: evolves every island for a designated number of generations, or
+     * until any island reaches its fitness threshold
+     *
+     * @param generations the number of generations to run each island for
+     * @return the fittest genome across all islands
+     */
+    public T run(int generations) {
+        AtomicBoolean solved = new AtomicBoolean(false);
+        AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread[] threads = new Thread[this.islands.size()];
+
+        for (int island = 0; island < threads.length; island++) {
+            int index = island;
+            threads[island] = new Thread(() -> {
+                try {
+                    this.evolve(index, generations, solved);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                    solved.set(true); // stop the other islands too
+                }
+            }, "Island " + island);
+            threads[island].start();
+        }
+
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for the islands", e);
+            }
+        }
+        if (failure.get() != null) {
+            throw new RuntimeException("An island failed", failure.get());
+        }
+
+        return this.fittestGenome();
+    }
+
+    /**
+     * ensures: returns the fittest genome across all islands
+     *
+     * @return the fittest genome
+     */
+    public T fittestGenome() {
+        T fittest = null;
+        for (GeneticAlgorithm<T> island : this.islands) {
+            T candidate = island.fittestGenome();
+            if (fittest == null || candidate.compareTo(fittest) > 0) {
+                fittest = candidate;
+            }
+        }
+        return fittest;
+    }
+
+    /**
+     * ensures: runs one island, migrating every migrationInterval generations,
+     * until it meets one of its termination criteria
+     *
+     * @param index       the index of the island
+     * @param generations the number of generations to run
+     * @param solved      set once any island reaches its threshold
+     */
+    private void evolve(int index, int generations, AtomicBoolean solved) {
+        GeneticAlgorithm<T> island = this.islands.get(index);
+        for (int i = 0; i < generations && !solved.get(); i++) {
+            if (island.thresholdReached()) {
+                solved.set(true);
+                return;
+            }
+            if (island.terminationReached()) {
+                return; // only this island has stagnated or run out of budget
+            }
+            island.nextGeneration();
+
+            if ((i + 1) % this.migrationInterval == 0) {
+                this.emigrate(index);
+                this.immigrate(index);
+            }
+        }
+        if (island.thresholdReached()) {
+            solved.set(true);
+        }
+    }
+
+    /**
+     * ensures: posts copies of the fittest genomes of an island to its
+     * neighbours' inboxes
+     *
+     * @param index the index of the sending island
+     */
+    private void emigrate(int index) {
+        int islandCount = this.islands.size();
+        if (islandCount < 2 || this.migrantCount < 1) {
+            return;
+        }
+        ArrayList<byte[]> emigrants = new ArrayList<byte[]>(this.migrantCount);
+        for (T emigrant : this.islands.get(index).emigrants(this.migrantCount)) {
+            emigrants.add(this.encode(emigrant));
+        }
+
+        switch (this.topology) {
+            case RING:
+                this.inboxes.get((index + 1) % islandCount).addAll(emigrants);
+                break;
+            case FULLY_CONNECTED:
+                for (int neighbour = 0; neighbour < islandCount; neighbour++) {
+                    if (neighbour != index) {
+                        this.inboxes.get(neighbour).addAll(emigrants);
+                    }
+                }
+                break;
+            case RANDOM: {
+                int neighbour = this.islandRands[index].nextInt(islandCount - 1);
+                if (neighbour >= index) {
+                    neighbour++; // skip the sending island
+                }
+                this.inboxes.get(neighbour).addAll(emigrants);
+                break;
+            }
+        }
+    }
+
+    /**
+     * ensures: decodes every genome that has arrived in an island's inbox with the
+     * island's Random and moves it into its population
+     *
+     * @param index the index of the receiving island
+     */
+    private void immigrate(int index) {
+        ConcurrentLinkedQueue<byte[]> inbox = this.inboxes.get(index);
+        GeneticAlgorithm<T> island = this.islands.get(index);
+        ArrayList<T> arrivals = new ArrayList<T>();
+        for (byte[] migrant = inbox.poll(); migrant != null; migrant = inbox.poll()) {
+            arrivals.add(this.decode(migrant, island.random()));
+        }
+        island.immigrate(arrivals);
+    }
+
+    /**
+     * ensures: encodes a migrant with its fitness
+     *
+     * @param migrant the genome to send
+     * @return the encoded migrant
+     */
+    private byte[] encode(T migrant) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeDouble(migrant.fitness());
+            this.codec.write(migrant, out);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Could not encode a migrant", e);
+        }
+    }
+
+    /**
+     * ensures: decodes a migrant written by encode into a genome of its own
+     *
+     * @param migrant the encoded migrant
+     * @param rand    the Random of the receiving island
+     * @return the copy of the migrant
+     */
+    private T decode(byte[] migrant, Random rand) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(migrant));
+            double fitness = in.readDouble();
+            T genome = this.codec.read(in, rand);
+            genome.assignFitness(fitness);
+            return genome;
+        } catch (IOException e) {
+            throw new RuntimeException("Could not decode a migrant", e);
+        }
+    }
+
+    /**
+     * which islands each island sends its migrants to
+     */
+    public enum Topology {
+        // each island sends to the next, the last sending to the first
+        RING,
+        // each island sends to every other island
+        FULLY_CONNECTED,
+        // each island sends to one other island chosen at random every migration
+        RANDOM
+    }
+}
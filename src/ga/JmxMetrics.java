@@ -0,0 +1,118 @@
+package ga;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * publishes the metrics of the last generation, and the totals since the
+ * algorithm started, as an MBean named ga:type=GeneticAlgorithm,name=...
+ */
+public class JmxMetrics implements MetricsRegistry, JmxMetricsMXBean {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+
+    private ObjectName name;
+    // guarded by this
+    private GenerationMetrics last;
+    private long totalEvaluations;
+    private long totalNanos;
+    private long[] totalPhaseNanos = new long[GenerationMetrics.Phase.values().length];
+
+    /**
+     * ensures: registers an MBean named with a number unique in this JVM
+     */
+    public JmxMetrics() {
+        this(Integer.toString(NEXT_ID.getAndIncrement()));
+    }
+
+    /**
+     * ensures: registers an MBean with the given name
+     *
+     * @param name the name of the MBean, unique among the algorithms of this JVM
+     */
+    public JmxMetrics(String name) {
+        try {
+            this.name = new ObjectName("ga:type=GeneticAlgorithm,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, this.name);
+        } catch (JMException e) {
+            throw new RuntimeException("Could not register the metrics MBean " + name, e);
+        }
+    }
+
+    /**
+     * ensures: removes the MBean, after which it no longer publishes anything
+     */
+    public void unregister() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.name);
+        } catch (JMException e) {
+            throw new RuntimeException("Could not unregister the metrics MBean " + this.name, e);
+        }
+    }
+
+    @Override
+    public synchronized void record(GenerationMetrics metrics) {
+        this.last = metrics;
+        this.totalEvaluations += metrics.evaluations();
+        this.totalNanos += metrics.totalNanos();
+        for (GenerationMetrics.Phase phase : GenerationMetrics.Phase.values()) {
+            this.totalPhaseNanos[phase.ordinal()] += metrics.nanos(phase);
+        }
+    }
+
+    @Override
+    public synchronized int getGeneration() {
+        return this.last == null ? 0 : this.last.generation();
+    }
+
+    @Override
+    public synchronized long getGenerationNanos() {
+        return this.last == null ? 0 : this.last.totalNanos();
+    }
+
+    @Override
+    public synchronized int getEvaluations() {
+        return this.last == null ? 0 : this.last.evaluations();
+    }
+
+    @Override
+    public synchronized double getEvaluationsPerSecond() {
+        return this.last == null ? 0 : this.last.evaluationsPerSecond();
+    }
+
+    @Override
+    public synchronized long getAllocatedBytes() {
+        return this.last == null ? -1 : this.last.allocatedBytes();
+    }
+
+    @Override
+    public synchronized Map<String, Long> getPhaseNanos() {
+        LinkedHashMap<String, Long> nanos = new LinkedHashMap<String, Long>();
+        for (GenerationMetrics.Phase phase : GenerationMetrics.Phase.values()) {
+            nanos.put(phase.name().toLowerCase(), this.last == null ? 0 : this.last.nanos(phase));
+        }
+        return nanos;
+    }
+
+    @Override
+    public synchronized long getTotalEvaluations() {
+        return this.totalEvaluations;
+    }
+
+    @Override
+    public synchronized long getTotalNanos() {
+        return this.totalNanos;
+    }
+
+    @Override
+    public synchronized Map<String, Long> getTotalPhaseNanos() {
+        LinkedHashMap<String, Long> nanos = new LinkedHashMap<String, Long>();
+        for (GenerationMetrics.Phase phase : GenerationMetrics.Phase.values()) {
+            nanos.put(phase.name().toLowerCase(), this.totalPhaseNanos[phase.ordinal()]);
+        }
+        return nanos;
+    }
+}
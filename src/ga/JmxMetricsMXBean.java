@@ -0,0 +1,28 @@
+package ga;
+
+import java.util.Map;
+
+/**
+ * the attributes JmxMetrics publishes, per phase maps are keyed by the phase
+ * names in lower case
+ */
+public interface JmxMetricsMXBean {
+
+    int getGeneration();
+
+    long getGenerationNanos();
+
+    int getEvaluations();
+
+    double getEvaluationsPerSecond();
+
+    long getAllocatedBytes();
+
+    Map<String, Long> getPhaseNanos();
+
+    long getTotalEvaluations();
+
+    long getTotalNanos();
+
+    Map<String, Long> getTotalPhaseNanos();
+}
@@ -0,0 +1,83 @@
+package ga;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * selects genomes with a probability that falls linearly with their rank, so
+ * the scale of the fitness does not matter, only its order
+ *
+ * with selection pressure s between 1 and 2 the fittest genome is s times as
+ * likely as average to be drawn and the least fit 2 - s times. genomes of equal
+ * fitness share the average of their ranks
+ */
+public class LinearRankSelection implements SelectionMethod {
+    private double pressure;
+    private AliasTable table = new AliasTable();
+    private double[] fitness;
+    private double[] sorted;
+    private double[] weights;
+
+    /**
+     * ensures: instantiates linear rank selection with the given pressure
+     *
+     * @param pressure the expected number of draws of the fittest genome relative
+     *                 to the average, between 1 and 2
+     */
+    public LinearRankSelection(double pressure) {
+        if (pressure < 1.0 || pressure > 2.0) {
+            throw new IllegalArgumentException("The selection pressure must be between 1 and 2 but was "
+                    + pressure);
+        }
+        this.pressure = pressure;
+    }
+
+    @Override
+    public void prepare(List<? extends Genome> population, int draws, Random rand) {
+        int size = population.size();
+        this.fitness = SelectionMethod.fitnessOf(population, this.fitness);
+        if (this.sorted == null || this.sorted.length < size) {
+            this.sorted = new double[size];
+            this.weights = new double[size];
+        }
+        System.arraycopy(this.fitness, 0, this.sorted, 0, size);
+        Arrays.sort(this.sorted, 0, size);
+
+        for (int i = 0; i < size; i++) {
+            // the average rank of the run of equal values, 0 being the least fit
+            int first = lowerBound(this.sorted, size, this.fitness[i]);
+            int last = lowerBound(this.sorted, size, Math.nextUp(this.fitness[i])) - 1;
+            double rank = (first + last) / 2.0;
+            this.weights[i] = size == 1 ? 1.0
+                    : 2.0 - this.pressure + 2.0 * (this.pressure - 1.0) * rank / (size - 1);
+        }
+        this.table.build(this.weights, size);
+    }
+
+    @Override
+    public int select(Random rand) {
+        return this.table.sample(rand);
+    }
+
+    /**
+     * ensures: returns the index of the first value not less than the key
+     *
+     * @param sorted the values in ascending order
+     * @param size   the number of values in use
+     * @param key    the value to search for
+     * @return the insertion point of the key
+     */
+    private static int lowerBound(double[] sorted, int size, double key) {
+        int low = 0, high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,168 @@
+package ga;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * estimates the fitness of a genome as a weighted sum of its genes plus a
+ * constant, fitted by ridge regression to every observation so far
+ *
+ * observing only accumulates the normal equations, the weights are solved for
+ * by Cholesky decomposition the first time a prediction follows new
+ * observations, so the cubic cost in the number of genes is paid about once a
+ * generation
+ */
+public class LinearSurrogate implements Surrogate {
+    private double ridge;
+    // the number of features, the genes and a constant
+    private int features = -1;
+    // the lower triangle of X'X and X'y
+    private double[] gram;
+    private double[] moments;
+    private double[] weights;
+    private double[] factor;
+    private boolean solved;
+    private long observations;
+
+    /**
+     * ensures: instantiates an empty model
+     *
+     * @param ridge the penalty on large weights, which keeps the fit stable when
+     *              genes are correlated or there are few observations
+     */
+    public LinearSurrogate(double ridge) {
+        if (!(ridge > 0)) {
+            throw new IllegalArgumentException("The ridge penalty must be positive but was " + ridge);
+        }
+        this.ridge = ridge;
+    }
+
+    @Override
+    public void observe(double[] genes, double fitness) {
+        if (this.features < 0) {
+            this.features = genes.length + 1;
+            this.gram = new double[this.features * this.features];
+            this.moments = new double[this.features];
+            this.weights = new double[this.features];
+            this.factor = new double[this.features * this.features];
+        }
+        int n = this.features;
+        for (int i = 0; i < n; i++) {
+            double xi = i < n - 1 ? genes[i] : 1.0;
+            if (xi == 0) {
+                continue; // common for bitstrings, the row adds nothing
+            }
+            this.moments[i] += xi * fitness;
+            int row = i * n;
+            for (int j = 0; j <= i; j++) {
+                double xj = j < n - 1 ? genes[j] : 1.0;
+                this.gram[row + j] += xi * xj;
+            }
+        }
+        this.solved = false;
+        this.observations++;
+    }
+
+    @Override
+    public double predict(double[] genes) {
+        if (this.observations == 0) {
+            return 0;
+        }
+        if (!this.solved) {
+            this.solve();
+        }
+        int n = this.features;
+        double estimate = this.weights[n - 1];
+        for (int gene = 0; gene < n - 1; gene++) {
+            estimate += this.weights[gene] * genes[gene];
+        }
+        return estimate;
+    }
+
+    @Override
+    public long observations() {
+        return this.observations;
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(this.observations);
+        out.writeInt(this.features);
+        for (int i = 0; i < this.features; i++) {
+            out.writeDouble(this.moments[i]);
+            for (int j = 0; j <= i; j++) {
+                out.writeDouble(this.gram[i * this.features + j]);
+            }
+        }
+    }
+
+    @Override
+    public void read(DataInput in) throws IOException {
+        long observations = in.readLong();
+        int features = in.readInt();
+        if (observations < 0 || features < -1 || features == 0) {
+            throw new IOException("Malformed linear surrogate with " + features + " features");
+        }
+        this.observations = observations;
+        this.features = features;
+        this.solved = false;
+        if (features < 0) {
+            this.gram = this.moments = this.weights = this.factor = null;
+            return;
+        }
+        this.gram = new double[Math.multiplyExact(features, features)];
+        this.moments = new double[features];
+        this.weights = new double[features];
+        this.factor = new double[features * features];
+        for (int i = 0; i < features; i++) {
+            this.moments[i] = in.readDouble();
+            for (int j = 0; j <= i; j++) {
+                this.gram[i * features + j] = in.readDouble();
+            }
+        }
+    }
+
+    /**
+     * ensures: solves (X'X + ridge I) w = X'y for the weights, leaving the
+     * constant unpenalized
+     */
+    private void solve() {
+        int n = this.features;
+        double[] l = this.factor;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                double sum = this.gram[i * n + j];
+                if (i == j && i < n - 1) {
+                    sum += this.ridge;
+                }
+                for (int m = 0; m < j; m++) {
+                    sum -= l[i * n + m] * l[j * n + m];
+                }
+                if (i == j) {
+                    // rounding can leave the constant's pivot at zero, nudge it
+                    l[i * n + i] = Math.sqrt(Math.max(sum, this.ridge));
+                } else {
+                    l[i * n + j] = sum / l[j * n + j];
+                }
+            }
+        }
+        // forward substitution with L, then back substitution with L'
+        double[] w = this.weights;
+        for (int i = 0; i < n; i++) {
+            double sum = this.moments[i];
+            for (int m = 0; m < i; m++) {
+                sum -= l[i * n + m] * w[m];
+            }
+            w[i] = sum / l[i * n + i];
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = w[i];
+            for (int m = i + 1; m < n; m++) {
+                sum -= l[m * n + i] * w[m];
+            }
+            w[i] = sum / l[i * n + i];
+        }
+        this.solved = true;
+    }
+}
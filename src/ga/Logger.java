@@ -11,6 +11,7 @@ public class Logger<T> {
     private CSVLogger logger;
     private ArrayList<String> headers;
     private LogFunction<T> logFunction;
+    private StatisticsLogFunction<T> statisticsLogFunction;
 
     /**
      * ensures: instantiates an instance of logger
@@ -34,6 +35,28 @@ public class Logger<T> {
         }
     }
 
+    /**
+     * ensures: instantiates an instance of logger whose rows are generated from
+     * the statistics the GA already computed for each generation
+     * 
+     * @param filename    the file to log to
+     * @param logger      the csv logger used for logging
+     * @param headers     the headers of the csv
+     * @param logFunction the function generating each new row of data
+     */
+    public Logger(String filename, CSVLogger logger, ArrayList<String> headers,
+            StatisticsLogFunction<T> logFunction) {
+        this(filename, logger, headers, (LogFunction<T>) null);
+        this.statisticsLogFunction = logFunction;
+    }
+
+    /**
+     * ensures: instantiates a logger that does not write to a csv file, for
+     * loggers that record their data elsewhere
+     */
+    protected Logger() {
+    }
+
     /**
      * ensures: logs a row of data to the csv file
      * 
@@ -44,8 +67,30 @@ public class Logger<T> {
         this.logFunction.log(this.logger, this.filename, population, generation);
     }
 
+    /**
+     * ensures: logs a row of data to the csv file, handing the statistics of the
+     * generation to the log function if it uses them
+     * 
+     * @param population the current population in the GA
+     * @param generation the current generation of the GA
+     * @param statistics the statistics of the current population
+     */
+    public void log(ArrayList<T> population, int generation, PopulationStatistics statistics) {
+        if (this.statisticsLogFunction != null) {
+            this.statisticsLogFunction.log(this.logger, this.filename, population, generation, statistics);
+        } else {
+            this.log(population, generation);
+        }
+    }
+
     @FunctionalInterface
     public interface LogFunction<T> {
         void log(CSVLogger logger, String filename, ArrayList<T> population, int generation);
     }
+
+    @FunctionalInterface
+    public interface StatisticsLogFunction<T> {
+        void log(CSVLogger logger, String filename, ArrayList<T> population, int generation,
+                PopulationStatistics statistics);
+    }
 }
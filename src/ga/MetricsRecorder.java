@@ -0,0 +1,109 @@
+package ga;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * times the phases of each generation and hands the result to the registries
+ *
+ * only created once a registry is added, so an algorithm without one never
+ * reads the clock
+ */
+class MetricsRecorder {
+    private ArrayList<MetricsRegistry> registries = new ArrayList<MetricsRegistry>();
+    private com.sun.management.ThreadMXBean threads;
+    private long[] phaseNanos = new long[GenerationMetrics.Phase.values().length];
+    private long startNanos;
+    private long lapNanos;
+    private long startAllocatedBytes;
+    private int evaluations;
+
+    /**
+     * ensures: instantiates a recorder, counting allocated bytes if the JVM can
+     */
+    MetricsRecorder() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean counters = (com.sun.management.ThreadMXBean) threads;
+            if (counters.isThreadAllocatedMemorySupported() && counters.isThreadAllocatedMemoryEnabled()) {
+                this.threads = counters;
+            }
+        }
+    }
+
+    /**
+     * ensures: adds a registry to hand the metrics of each generation to
+     *
+     * @param registry the registry
+     */
+    void add(MetricsRegistry registry) {
+        this.registries.add(registry);
+    }
+
+    /**
+     * ensures: starts measuring a generation, forgetting anything recorded since
+     * the last one finished
+     */
+    void startGeneration() {
+        Arrays.fill(this.phaseNanos, 0);
+        this.evaluations = 0;
+        this.startAllocatedBytes = this.allocatedBytes();
+        this.startNanos = System.nanoTime();
+        this.lapNanos = this.startNanos;
+    }
+
+    /**
+     * ensures: adds the time since the last lap to a phase
+     *
+     * @param phase the phase that just ended
+     */
+    void lap(GenerationMetrics.Phase phase) {
+        long now = System.nanoTime();
+        this.phaseNanos[phase.ordinal()] += now - this.lapNanos;
+        this.lapNanos = now;
+    }
+
+    /**
+     * ensures: starts the next lap without adding the time since the last one to
+     * any phase
+     */
+    void skip() {
+        this.lapNanos = System.nanoTime();
+    }
+
+    /**
+     * ensures: counts genomes evaluated by the fitness function
+     *
+     * @param count the number of genomes
+     */
+    void evaluated(int count) {
+        this.evaluations += count;
+    }
+
+    /**
+     * ensures: finishes measuring a generation and hands its metrics to every
+     * registry
+     *
+     * @param generation the generation measured
+     */
+    void finishGeneration(int generation) {
+        long totalNanos = System.nanoTime() - this.startNanos;
+        long allocatedBytes = this.threads == null ? -1 : this.allocatedBytes() - this.startAllocatedBytes;
+        GenerationMetrics metrics = new GenerationMetrics(generation, this.phaseNanos.clone(), totalNanos,
+                this.evaluations, allocatedBytes);
+        for (MetricsRegistry registry : this.registries) {
+            registry.record(metrics);
+        }
+    }
+
+    /**
+     * ensures: returns the bytes the current thread has allocated so far
+     *
+     * @return the allocated bytes, or 0 if they are not counted
+     */
+    private long allocatedBytes() {
+        return this.threads == null ? 0 : this.threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,19 @@
+package ga;
+
+/**
+ * receives the metrics of every generation of a GeneticAlgorithm it was added
+ * to, for publishing them to a monitoring system
+ *
+ * an algorithm without registries does not time anything
+ */
+@FunctionalInterface
+public interface MetricsRegistry {
+
+    /**
+     * ensures: records the metrics of a generation that just finished
+     * requires: returns quickly, it runs on the thread running the algorithm
+     *
+     * @param metrics the metrics of the generation
+     */
+    void record(GenerationMetrics metrics);
+}
@@ -0,0 +1,93 @@
+package ga;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * prints one line summarizing the metrics of every interval of generations:
+ * the mean time and allocation per generation, the evaluation rate, and the
+ * share of the time spent in each phase
+ */
+public class MetricsSummary implements MetricsRegistry {
+    private int interval;
+    private PrintStream out;
+    private int firstGeneration = -1;
+    private int generations;
+    private long evaluations;
+    private long totalNanos;
+    private long allocatedBytes;
+    private long[] phaseNanos = new long[GenerationMetrics.Phase.values().length];
+
+    /**
+     * ensures: instantiates a summary printed to System.out
+     *
+     * @param interval the number of generations each line summarizes
+     */
+    public MetricsSummary(int interval) {
+        this(interval, System.out);
+    }
+
+    /**
+     * ensures: instantiates a summary printed to the given stream
+     *
+     * @param interval the number of generations each line summarizes
+     * @param out      the stream to print to
+     */
+    public MetricsSummary(int interval, PrintStream out) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("The summary interval must be at least 1 but was " + interval);
+        }
+        this.interval = interval;
+        this.out = out;
+    }
+
+    @Override
+    public void record(GenerationMetrics metrics) {
+        if (this.firstGeneration < 0) {
+            this.firstGeneration = metrics.generation();
+        }
+        this.generations++;
+        this.evaluations += metrics.evaluations();
+        this.totalNanos += metrics.totalNanos();
+        // a single unknown count makes the whole interval unknown
+        this.allocatedBytes = metrics.allocatedBytes() < 0 || this.allocatedBytes < 0 ? -1
+                : this.allocatedBytes + metrics.allocatedBytes();
+        for (GenerationMetrics.Phase phase : GenerationMetrics.Phase.values()) {
+            this.phaseNanos[phase.ordinal()] += metrics.nanos(phase);
+        }
+
+        if (this.generations == this.interval) {
+            this.out.println(this.summary(metrics.generation()));
+            this.firstGeneration = -1;
+            this.generations = 0;
+            this.evaluations = 0;
+            this.totalNanos = 0;
+            this.allocatedBytes = 0;
+            Arrays.fill(this.phaseNanos, 0);
+        }
+    }
+
+    /**
+     * ensures: formats the summary of the generations recorded so far
+     *
+     * @param lastGeneration the last generation recorded
+     * @return the summary line
+     */
+    private String summary(int lastGeneration) {
+        StringBuilder line = new StringBuilder(192);
+        line.append(String.format("Generations %d-%d: %.3f ms/generation, %.0f evaluations/s", this.firstGeneration,
+                lastGeneration, this.totalNanos / 1e6 / this.generations,
+                this.totalNanos == 0 ? 0.0 : this.evaluations * 1e9 / this.totalNanos));
+        if (this.allocatedBytes >= 0) {
+            line.append(String.format(", %.1f KB allocated/generation", this.allocatedBytes / 1024.0 / this.generations));
+        }
+        for (GenerationMetrics.Phase phase : GenerationMetrics.Phase.values()) {
+            long nanos = this.phaseNanos[phase.ordinal()];
+            if (nanos > 0) {
+                line.append(String.format(", %s %.1f%%", phase.name().toLowerCase(),
+                        100.0 * nanos / this.totalNanos));
+            }
+        }
+        return line.toString();
+    }
+}
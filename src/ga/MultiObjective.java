@@ -0,0 +1,24 @@
+package ga;
+
+/**
+ * a genome scored on several objectives at once, such as cost, latency and
+ * quality, so MultiObjectiveEvolution can search for the trade-offs between
+ * them instead of one weighting of them
+ *
+ * like fitness every objective is maximised, objectives to minimise are
+ * negated. genomes calculate their objectives when they calculate their
+ * fitness, so evaluation stays lazy and parallel. the fitness itself is not
+ * used for ranking and may be any scalarisation of the objectives
+ */
+public interface MultiObjective {
+    /**
+     * ensures: returns the objectives of this genome, evaluating it first if its
+     * evaluation is pending
+     * requires: every genome of a population has the same number of objectives,
+     * none of them NaN. clones share fields, so each evaluation must store a new
+     * array rather than overwrite the old one
+     *
+     * @return the objectives, which must not be modified
+     */
+    double[] objectives();
+}
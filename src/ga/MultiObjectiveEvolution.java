@@ -0,0 +1,355 @@
+package ga;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * evolves a population towards the trade-offs between several objectives, the
+ * NSGA-II way: parents are drawn by binary tournament on front and crowding
+ * distance, and the next generation is the best fronts of parents and children
+ * together, the last front that fits only in part keeping its least crowded
+ * members
+ *
+ * the genomes' own fitness plays no part in the search, so the loggers and
+ * statistics report whatever scalarisation the genomes chose for it. runs are
+ * reproducible from the seed, and with parallelism set breeding and evaluation
+ * run on several threads, each mating seeded as in GeneticAlgorithm so the
+ * result does not depend on the number of threads
+ */
+public class MultiObjectiveEvolution<T extends Genome & MultiObjective> {
+    private GAConfig config;
+    private Random rand;
+    private ArrayList<Logger<T>> loggers;
+    private ParallelBreeder<T> breeder;
+
+    private ArrayList<T> population;
+    // the front and crowding distance of each genome of the population
+    private int[] ranks;
+    private double[] crowding;
+    private int objectiveCount;
+    private int generation = 0;
+    private long evaluations = 0;
+
+    private int MAX_POPULATION_SIZE = -1;
+    private double MUTATION_RATE = -1.0;
+    private int PARALLELISM = 0;
+
+    /**
+     * ensures: instantiates everything needed to run the multi objective
+     * algorithm, evaluating and ranking the initial population
+     * requires: the population holds at least two genomes
+     *
+     * @param configFileName    the path of the config file to use
+     * @param initialPopulation the genomes to start from
+     * @param rand              the source of randomness
+     * @param loggers           the loggers given the population every generation
+     */
+    public MultiObjectiveEvolution(String configFileName, ArrayList<T> initialPopulation, Random rand,
+            ArrayList<Logger<T>> loggers) {
+        this(GAConfig.load(configFileName), initialPopulation, rand, loggers);
+    }
+
+    /**
+     * ensures: instantiates everything needed to run the multi objective
+     * algorithm with the given settings, evaluating and ranking the initial
+     * population
+     * requires: the population holds at least two genomes
+     *
+     * @param config            the settings of this algorithm
+     * @param initialPopulation the genomes to start from
+     * @param rand              the source of randomness
+     * @param loggers           the loggers given the population every generation
+     */
+    public MultiObjectiveEvolution(GAConfig config, ArrayList<T> initialPopulation, Random rand,
+            ArrayList<Logger<T>> loggers) {
+        if (initialPopulation.size() < 2) {
+            throw new IllegalArgumentException("Multi objective evolution needs at least 2 genomes but got "
+                    + initialPopulation.size());
+        }
+        this.config = config;
+        this.verifyConstants(config, initialPopulation.size());
+        this.rand = rand;
+        this.loggers = loggers;
+        if (this.PARALLELISM > 0) {
+            this.breeder = new ParallelBreeder<T>(this.PARALLELISM);
+        }
+
+        ArrayList<T> initial = new ArrayList<T>(initialPopulation);
+        this.evaluateAll(initial);
+        this.objectiveCount = initial.get(0).objectives().length;
+        if (this.objectiveCount == 0) {
+            throw new IllegalArgumentException("Genomes need at least one objective");
+        }
+        this.population = new ArrayList<T>(this.MAX_POPULATION_SIZE);
+        this.ranks = new int[this.MAX_POPULATION_SIZE];
+        this.crowding = new double[this.MAX_POPULATION_SIZE];
+        this.survive(initial);
+    }
+
+    /**
+     * ensures: returns the settings this algorithm was created with
+     *
+     * @return the config
+     */
+    public GAConfig config() {
+        return this.config;
+    }
+
+    /**
+     * ensures: runs the given number of generations, then stops the breeding
+     * threads if there are any
+     *
+     * @param generations the number of generations to run
+     * @return the non-dominated genomes of the final population
+     */
+    public ArrayList<T> run(int generations) {
+        try {
+            for (int i = 0; i < generations; i++) {
+                this.nextGeneration();
+            }
+        } finally {
+            if (this.breeder != null) {
+                this.breeder.shutdown();
+                this.breeder = null;
+            }
+        }
+        return this.paretoFront();
+    }
+
+    /**
+     * ensures: breeds and evaluates as many children as the population holds and
+     * keeps the best fronts of parents and children together
+     */
+    public void nextGeneration() {
+        ArrayList<T> children = this.produceChildren();
+        this.evaluateAll(children);
+        ArrayList<T> candidates = new ArrayList<T>(this.population.size() + children.size());
+        candidates.addAll(this.population);
+        candidates.addAll(children);
+        this.generation++;
+        this.survive(candidates);
+    }
+
+    /**
+     * ensures: returns the genomes of the population no other genome of it
+     * dominates, in population order
+     *
+     * @return the first front
+     */
+    public ArrayList<T> paretoFront() {
+        ArrayList<T> front = new ArrayList<T>();
+        for (int i = 0; i < this.population.size(); i++) {
+            if (this.ranks[i] == 0) {
+                front.add(this.population.get(i));
+            }
+        }
+        return front;
+    }
+
+    /**
+     * ensures: returns a copy of the current population
+     *
+     * @return the genomes of the population
+     */
+    public ArrayList<T> population() {
+        return new ArrayList<T>(this.population);
+    }
+
+    /**
+     * ensures: returns the front of a genome of the population, 0 for the
+     * non-dominated genomes
+     *
+     * @param index the position of the genome in population()
+     * @return the front
+     */
+    public int rank(int index) {
+        return this.ranks[index];
+    }
+
+    /**
+     * ensures: returns the crowding distance of a genome of the population within
+     * its front, infinite at the ends of the front
+     *
+     * @param index the position of the genome in population()
+     * @return the crowding distance
+     */
+    public double crowdingDistance(int index) {
+        return this.crowding[index];
+    }
+
+    public int generation() {
+        return this.generation;
+    }
+
+    /**
+     * ensures: returns the number of fitness evaluations carried out so far,
+     * counting the initial population and genomes that evaluate themselves when
+     * created
+     *
+     * @return the evaluation count
+     */
+    public long evaluations() {
+        return this.evaluations;
+    }
+
+    /**
+     * ensures: sorts the candidates into fronts and makes the best of them, at
+     * most population.size genomes, the population, then logs it
+     *
+     * @param candidates the genomes to choose from, all evaluated
+     */
+    private void survive(ArrayList<T> candidates) {
+        int n = candidates.size();
+        int m = this.objectiveCount;
+        double[] objectives = new double[n * m];
+        for (int row = 0; row < n; row++) {
+            double[] genomeObjectives = candidates.get(row).objectives();
+            if (genomeObjectives.length != m) {
+                throw new IllegalArgumentException("Every genome needs " + m + " objectives but "
+                        + candidates.get(row) + " has " + genomeObjectives.length);
+            }
+            System.arraycopy(genomeObjectives, 0, objectives, row * m, m);
+        }
+        int[] candidateRanks = new int[n];
+        int fronts = NonDominatedSorting.sort(objectives, n, m, candidateRanks);
+
+        // group the rows by front with a counting sort
+        int[] frontStarts = new int[fronts + 1];
+        for (int row = 0; row < n; row++) {
+            frontStarts[candidateRanks[row] + 1]++;
+        }
+        for (int front = 0; front < fronts; front++) {
+            frontStarts[front + 1] += frontStarts[front];
+        }
+        int[] byFront = new int[n];
+        int[] next = frontStarts.clone();
+        for (int row = 0; row < n; row++) {
+            byFront[next[candidateRanks[row]]++] = row;
+        }
+
+        double[] distance = new double[n];
+        this.population.clear();
+        for (int front = 0; front < fronts && this.population.size() < this.MAX_POPULATION_SIZE; front++) {
+            int size = frontStarts[front + 1] - frontStarts[front];
+            int[] members = new int[size];
+            System.arraycopy(byFront, frontStarts[front], members, 0, size);
+            NonDominatedSorting.crowdingDistance(objectives, m, members, size, distance);
+            int room = this.MAX_POPULATION_SIZE - this.population.size();
+            if (size > room) {
+                TopK.select(members, distance, size, room); // the least crowded first
+                size = room;
+            }
+            for (int i = 0; i < size; i++) {
+                int row = members[i];
+                this.ranks[this.population.size()] = front;
+                this.crowding[this.population.size()] = distance[row];
+                this.population.add(candidates.get(row));
+            }
+        }
+
+        PopulationStatistics statistics = PopulationStatistics.of(this.population, this.generation, false);
+        for (Logger<T> logger : this.loggers) {
+            logger.log(this.population, this.generation, statistics);
+        }
+    }
+
+    /**
+     * ensures: breeds as many children as the population holds from parents
+     * drawn by crowded tournament, scheduling the matings when breeding in
+     * parallel
+     *
+     * @return the children, mutated but not evaluated
+     */
+    @SuppressWarnings("unchecked")
+    private ArrayList<T> produceChildren() {
+        int size = this.population.size();
+        ArrayList<T> children = new ArrayList<T>(size + 1);
+        for (int i = 0; i < size; i += 2) {
+            T mother = this.population.get(this.crowdedTournament());
+            T father = this.population.get(this.crowdedTournament());
+            if (this.breeder != null) {
+                this.breeder.schedule(mother, father, this.rand.nextLong());
+            } else {
+                for (Genome child : mother.crossover(father, this.rand)) {
+                    child.mutate(this.MUTATION_RATE, this.rand);
+                    children.add((T) child);
+                }
+            }
+        }
+        if (this.breeder != null) {
+            children = this.breeder.breed(this.MUTATION_RATE);
+        }
+        if (children.size() > size) {
+            children.subList(size, children.size()).clear();
+        }
+        return children;
+    }
+
+    /**
+     * ensures: draws two genomes of the population at random and returns the one
+     * in the better front, or the less crowded one if they share a front
+     *
+     * @return the position of the winner in the population
+     */
+    private int crowdedTournament() {
+        int size = this.population.size();
+        int first = this.rand.nextInt(size);
+        int second = this.rand.nextInt(size);
+        if (this.ranks[first] != this.ranks[second]) {
+            return this.ranks[first] < this.ranks[second] ? first : second;
+        }
+        return this.crowding[second] > this.crowding[first] ? second : first;
+    }
+
+    /**
+     * ensures: evaluates every genome whose evaluation is pending, in parallel
+     * when breeding in parallel
+     *
+     * @param genomes the genomes to evaluate
+     */
+    private void evaluateAll(ArrayList<T> genomes) {
+        ArrayList<T> pending = new ArrayList<T>();
+        int eager = 0;
+        for (T genome : genomes) {
+            if (!genome.isEvaluated()) {
+                pending.add(genome);
+            } else {
+                eager++; // evaluated when it was created
+            }
+        }
+        if (this.breeder != null) {
+            this.breeder.evaluate(pending);
+        } else {
+            for (T genome : pending) {
+                genome.evaluate();
+            }
+        }
+        this.evaluations += pending.size() + eager;
+    }
+
+    /**
+     * ensures: validates and instantiates the constants from the config
+     *
+     * @param config      the settings of this algorithm
+     * @param initialSize the size of the initial population
+     */
+    private void verifyConstants(GAConfig config, int initialSize) {
+        this.MAX_POPULATION_SIZE = config.getInt("population.size", -1);
+        this.MUTATION_RATE = config.getDouble("mutation.rate", -1.0);
+        this.PARALLELISM = config.getInt("parallelism", this.PARALLELISM);
+
+        if (this.MAX_POPULATION_SIZE == -1) {
+            System.out.println("Constant MAX_POPULATION_SIZE was not set. The size of the initial population ("
+                    + initialSize + ") will be used");
+            this.MAX_POPULATION_SIZE = initialSize;
+        }
+        if (this.MAX_POPULATION_SIZE < 2) {
+            throw new IllegalArgumentException("population.size must be at least 2 but was "
+                    + this.MAX_POPULATION_SIZE);
+        }
+        if (this.MUTATION_RATE == -1.0) {
+            System.out.println("Constant MUTATION_RATE was not set. Default of 0.1 will be used");
+            this.MUTATION_RATE = 0.1;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package ga;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * estimates the fitness of a genome as the mean fitness of the k most similar
+ * genomes evaluated recently, weighted by inverse distance
+ *
+ * the most recent capacity observations are kept in one flat array, older ones
+ * are overwritten, so the model follows the population as it moves
+ */
+public class NearestNeighbourSurrogate implements Surrogate {
+    private int k;
+    private Distance distance;
+    private int capacity;
+    private int columns = -1;
+    private double[] archive;
+    private double[] fitness;
+    private int count;
+    private int next;
+    private long observations;
+    // the k nearest so far while predicting, nearest first
+    private double[] nearestDistance;
+    private double[] nearestFitness;
+
+    /**
+     * ensures: instantiates an empty model
+     *
+     * @param k        the number of neighbours averaged
+     * @param distance how genomes are compared
+     * @param capacity the most observations kept
+     */
+    public NearestNeighbourSurrogate(int k, Distance distance, int capacity) {
+        if (k < 1 || capacity < k) {
+            throw new IllegalArgumentException("The surrogate needs k >= 1 and capacity >= k but got k = " + k
+                    + " and capacity = " + capacity);
+        }
+        this.k = k;
+        this.distance = distance;
+        this.capacity = capacity;
+        this.fitness = new double[capacity];
+        this.nearestDistance = new double[k];
+        this.nearestFitness = new double[k];
+    }
+
+    @Override
+    public void observe(double[] genes, double fitness) {
+        if (this.columns < 0) {
+            this.columns = genes.length;
+            this.archive = new double[Math.multiplyExact(this.capacity, this.columns)];
+        }
+        System.arraycopy(genes, 0, this.archive, this.next * this.columns, this.columns);
+        this.fitness[this.next] = fitness;
+        this.next = (this.next + 1) % this.capacity;
+        this.count = Math.min(this.count + 1, this.capacity);
+        this.observations++;
+    }
+
+    @Override
+    public double predict(double[] genes) {
+        if (this.count == 0) {
+            return 0;
+        }
+        int found = 0;
+        for (int row = 0; row < this.count; row++) {
+            double d = this.distance(genes, row * this.columns);
+            if (found == this.k && d >= this.nearestDistance[found - 1]) {
+                continue;
+            }
+            // insert into the sorted nearest list, dropping the farthest when full
+            int at = found < this.k ? found++ : found - 1;
+            while (at > 0 && this.nearestDistance[at - 1] > d) {
+                this.nearestDistance[at] = this.nearestDistance[at - 1];
+                this.nearestFitness[at] = this.nearestFitness[at - 1];
+                at--;
+            }
+            this.nearestDistance[at] = d;
+            this.nearestFitness[at] = this.fitness[row];
+        }
+
+        if (this.nearestDistance[0] == 0) {
+            return this.nearestFitness[0]; // seen before
+        }
+        double weightedSum = 0;
+        double weights = 0;
+        for (int i = 0; i < found; i++) {
+            double weight = 1.0 / this.nearestDistance[i];
+            weightedSum += weight * this.nearestFitness[i];
+            weights += weight;
+        }
+        return weightedSum / weights;
+    }
+
+    @Override
+    public long observations() {
+        return this.observations;
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(this.observations);
+        out.writeInt(this.capacity);
+        out.writeInt(this.columns);
+        out.writeInt(this.count);
+        out.writeInt(this.next);
+        for (int row = 0; row < this.count; row++) {
+            out.writeDouble(this.fitness[row]);
+            for (int gene = 0; gene < this.columns; gene++) {
+                out.writeDouble(this.archive[row * this.columns + gene]);
+            }
+        }
+    }
+
+    @Override
+    public void read(DataInput in) throws IOException {
+        long observations = in.readLong();
+        int capacity = in.readInt();
+        if (capacity != this.capacity) {
+            throw new IOException("The surrogate was saved with capacity " + capacity + ", not " + this.capacity);
+        }
+        int columns = in.readInt();
+        int count = in.readInt();
+        int next = in.readInt();
+        if (columns < -1 || count < 0 || count > capacity || next < 0 || next >= capacity
+                || (columns < 0 && count > 0)) {
+            throw new IOException("Malformed nearest neighbour surrogate");
+        }
+        this.observations = observations;
+        this.columns = columns;
+        this.count = count;
+        this.next = next;
+        this.archive = columns < 0 ? null : new double[Math.multiplyExact(capacity, columns)];
+        for (int row = 0; row < count; row++) {
+            this.fitness[row] = in.readDouble();
+            for (int gene = 0; gene < columns; gene++) {
+                this.archive[row * columns + gene] = in.readDouble();
+            }
+        }
+    }
+
+    /**
+     * ensures: returns the distance between the genes and an archived row
+     *
+     * @param genes  the genes to compare
+     * @param offset the first gene of the row in the archive
+     * @return the distance
+     */
+    private double distance(double[] genes, int offset) {
+        double[] archive = this.archive;
+        if (this.distance == Distance.HAMMING) {
+            int differences = 0;
+            for (int gene = 0; gene < this.columns; gene++) {
+                if (genes[gene] != archive[offset + gene]) {
+                    differences++;
+                }
+            }
+            return differences;
+        }
+        double sum = 0;
+        for (int gene = 0; gene < this.columns; gene++) {
+            double difference = genes[gene] - archive[offset + gene];
+            sum += difference * difference;
+        }
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * how the similarity of two genomes is measured
+     */
+    public enum Distance {
+        // the number of genes that differ, for bitstrings and other discrete genes
+        HAMMING,
+        // the straight line distance, for real valued genes
+        EUCLIDEAN
+    }
+}
@@ -0,0 +1,210 @@
+package ga;
+
+/**
+ * splits rows of objectives into fronts of rows no other row of the same or a
+ * later front dominates, and measures how crowded each front is
+ *
+ * an efficient non-dominated sort with binary search (ENS-BS): rows are sorted
+ * lexicographically, so a row can only be dominated by rows before it, then
+ * each row is placed in the first front none of whose members dominates it,
+ * found by binary search because a row dominated by a member of one front is
+ * dominated by a member of every earlier front. with two objectives only the
+ * last member of a front needs checking, so the sort takes O(N log N), and
+ * otherwise far fewer comparisons than the O(M N^2) of comparing every pair.
+ * every objective is maximised and no objective may be NaN
+ */
+final class NonDominatedSorting {
+
+    private NonDominatedSorting() {
+    }
+
+    /**
+     * ensures: sets the front of each of the first n rows, 0 for rows no other row
+     * dominates, 1 for rows only rows of front 0 dominate, and so on. equal rows
+     * share a front
+     *
+     * @param objectives the objectives of the rows, row after row
+     * @param n          the number of rows
+     * @param m          the number of objectives of every row
+     * @param ranks      the array the front of every row is written to
+     * @return the number of fronts
+     */
+    static int sort(double[] objectives, int n, int m, int[] ranks) {
+        if (n == 0) {
+            return 0;
+        }
+        int[] order = new int[n];
+        for (int row = 0; row < n; row++) {
+            order[row] = row;
+        }
+        mergeSort(order, n, new int[n], (a, b) -> compareRows(objectives, m, a, b));
+
+        // the members of each front in the order they were placed
+        int[][] fronts = new int[8][];
+        int[] frontSizes = new int[8];
+        int frontCount = 0;
+        int previous = -1;
+        for (int i = 0; i < n; i++) {
+            int row = order[i];
+            int front;
+            if (previous >= 0 && compareRows(objectives, m, previous, row) == 0) {
+                front = ranks[previous]; // an equal row never dominates, join it
+            } else {
+                int low = 0, high = frontCount;
+                while (low < high) {
+                    int middle = (low + high) >>> 1;
+                    if (dominated(objectives, m, row, fronts[middle], frontSizes[middle])) {
+                        low = middle + 1;
+                    } else {
+                        high = middle;
+                    }
+                }
+                front = low;
+            }
+
+            if (front == frontCount) {
+                if (frontCount == fronts.length) {
+                    int[][] grownFronts = new int[frontCount << 1][];
+                    System.arraycopy(fronts, 0, grownFronts, 0, frontCount);
+                    fronts = grownFronts;
+                    int[] grownSizes = new int[frontCount << 1];
+                    System.arraycopy(frontSizes, 0, grownSizes, 0, frontCount);
+                    frontSizes = grownSizes;
+                }
+                fronts[frontCount++] = new int[4];
+            }
+            if (frontSizes[front] == fronts[front].length) {
+                int[] grown = new int[frontSizes[front] << 1];
+                System.arraycopy(fronts[front], 0, grown, 0, frontSizes[front]);
+                fronts[front] = grown;
+            }
+            fronts[front][frontSizes[front]++] = row;
+            ranks[row] = front;
+            previous = row;
+        }
+        return frontCount;
+    }
+
+    /**
+     * ensures: sets the crowding distance of every member of a front, the sum
+     * over the objectives of the gap between its neighbours on that objective
+     * relative to the range of the front. the members at either end of any
+     * objective get infinity
+     *
+     * @param objectives the objectives of the rows, row after row
+     * @param m          the number of objectives of every row
+     * @param members    the rows of the front, which are reordered
+     * @param size       the number of rows of the front
+     * @param distance   the array the distance of every row is written to
+     */
+    static void crowdingDistance(double[] objectives, int m, int[] members, int size, double[] distance) {
+        if (size <= 2) {
+            for (int i = 0; i < size; i++) {
+                distance[members[i]] = Double.POSITIVE_INFINITY;
+            }
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            distance[members[i]] = 0.0;
+        }
+        int[] buffer = new int[size];
+        for (int objective = 0; objective < m; objective++) {
+            int column = objective;
+            mergeSort(members, size, buffer,
+                    (a, b) -> Double.compare(objectives[a * m + column], objectives[b * m + column]));
+            double lowest = objectives[members[0] * m + column];
+            double highest = objectives[members[size - 1] * m + column];
+            distance[members[0]] = Double.POSITIVE_INFINITY;
+            distance[members[size - 1]] = Double.POSITIVE_INFINITY;
+            double range = highest - lowest;
+            if (!(range > 0.0)) {
+                continue; // every member is equal on this objective
+            }
+            for (int i = 1; i < size - 1; i++) {
+                distance[members[i]] += (objectives[members[i + 1] * m + column]
+                        - objectives[members[i - 1] * m + column]) / range;
+            }
+        }
+    }
+
+    /**
+     * ensures: returns whether any member of the front dominates the row
+     * requires: every member comes before the row in lexicographic order, so it
+     * is at least as large on the first objective and not equal to the row
+     */
+    private static boolean dominated(double[] objectives, int m, int row, int[] front, int size) {
+        if (m == 2) {
+            // the last member is the largest on the second objective of its front
+            return objectives[front[size - 1] * 2 + 1] >= objectives[row * 2 + 1];
+        }
+        // the latest members are the most likely to dominate, check them first
+        for (int i = size - 1; i >= 0; i--) {
+            int base = front[i] * m;
+            int objective = 1;
+            while (objective < m && objectives[base + objective] >= objectives[row * m + objective]) {
+                objective++;
+            }
+            if (objective == m) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * ensures: orders rows by descending objectives, the first objective first
+     */
+    private static int compareRows(double[] objectives, int m, int a, int b) {
+        int baseA = a * m, baseB = b * m;
+        for (int objective = 0; objective < m; objective++) {
+            double x = objectives[baseA + objective];
+            double y = objectives[baseB + objective];
+            if (x > y) {
+                return -1;
+            } else if (x < y) {
+                return 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * ensures: stably sorts the first n entries of rows with a bottom up merge
+     * sort, without boxing the rows
+     *
+     * @param rows       the rows to sort
+     * @param n          the number of entries in use
+     * @param buffer     scratch space of at least n entries
+     * @param comparator the order of the rows
+     */
+    private static void mergeSort(int[] rows, int n, int[] buffer, RowComparator comparator) {
+        int[] from = rows, to = buffer;
+        for (int width = 1; width < n; width <<= 1) {
+            for (int left = 0; left < n; left += width << 1) {
+                int middle = Math.min(left + width, n);
+                int right = Math.min(left + (width << 1), n);
+                int i = left, j = middle, k = left;
+                while (i < middle && j < right) {
+                    to[k++] = comparator.compare(from[j], from[i]) < 0 ? from[j++] : from[i++];
+                }
+                while (i < middle) {
+                    to[k++] = from[i++];
+                }
+                while (j < right) {
+                    to[k++] = from[j++];
+                }
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != rows) {
+            System.arraycopy(from, 0, rows, 0, n);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowComparator {
+        int compare(int a, int b);
+    }
+}
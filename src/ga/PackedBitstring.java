@@ -0,0 +1,353 @@
+package ga;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * a bitstring genome that packs 64 genes into each long
+ *
+ * by default the fitness is the fraction of genes set to 1, subclasses can
+ * override calculateFitness to score the bits differently, along with the
+ * DeltaEvaluable methods and fitnessFromParents
+ */
+public class PackedBitstring extends Genome implements DeltaEvaluable {
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_MASK = 63;
+    // above this rate a full mask is cheaper than a logarithm per flip
+    private static final double DENSE_MUTATION_RATE = 0.125;
+
+    protected long[] words;
+    private int ones;
+
+    /**
+     * ensures: instantiates a random bitstring of the given length
+     *
+     * @param length the number of bits
+     * @param rand   the source of randomness
+     */
+    public PackedBitstring(int length, Random rand) {
+        super(length, rand);
+        this.words = new long[wordCount(length)];
+        for (int word = 0; word < this.words.length; word++) {
+            this.words[word] = rand.nextLong();
+        }
+        this.clearUnusedBits();
+        this.calculateFitness();
+    }
+
+    /**
+     * ensures: instantiates a bitstring from already packed words, bit i of the
+     * genome is bit (i % 64) of word (i / 64)
+     *
+     * @param words  the packed bits, which the genome takes ownership of
+     * @param length the number of bits
+     * @param rand   the source of randomness
+     */
+    public PackedBitstring(long[] words, int length, Random rand) {
+        super(length, rand);
+        if (words.length != wordCount(length)) {
+            throw new IllegalArgumentException(
+                    length + " bits need " + wordCount(length) + " words, but " + words.length + " were given");
+        }
+        this.words = words;
+        this.clearUnusedBits();
+        this.calculateFitness();
+    }
+
+    /**
+     * ensures: instantiates the child taking bits [0, crossoverIndex) from the
+     * mother and the rest from the father
+     *
+     * @param mother         the parent of the prefix
+     * @param father         the parent of the suffix
+     * @param crossoverIndex the first bit taken from the father
+     */
+    protected PackedBitstring(PackedBitstring mother, PackedBitstring father, int crossoverIndex) {
+        super(mother.size(), mother.rand);
+        this.words = new long[mother.words.length];
+        this.inherit(mother, father, crossoverIndex);
+    }
+
+    /**
+     * ensures: overwrites this genome with the child of the parents, reusing its
+     * words
+     * requires: subclasses with state of their own beyond the bits override this
+     * to set it too
+     *
+     * @param mother         the parent the bits before the crossover index come from
+     * @param father         the parent the rest of the bits come from
+     * @param crossoverIndex the first bit taken from the father
+     */
+    protected void inherit(PackedBitstring mother, PackedBitstring father, int crossoverIndex) {
+        this.rand = mother.rand;
+        int boundary = crossoverIndex >>> WORD_SHIFT;
+        System.arraycopy(mother.words, 0, this.words, 0, boundary);
+        if (boundary < this.words.length) {
+            // the low bits of the boundary word come from the mother
+            long motherMask = (1L << (crossoverIndex & WORD_MASK)) - 1;
+            this.words[boundary] = (mother.words[boundary] & motherMask) | (father.words[boundary] & ~motherMask);
+            System.arraycopy(father.words, boundary + 1, this.words, boundary + 1,
+                    this.words.length - boundary - 1);
+        }
+
+        this.fitnessFromParents(mother, father, crossoverIndex);
+    }
+
+    /**
+     * ensures: returns the number of longs needed to hold the given number of bits
+     *
+     * @param length the number of bits
+     * @return the number of words
+     */
+    public static int wordCount(int length) {
+        return (length + WORD_MASK) >>> WORD_SHIFT;
+    }
+
+    /**
+     * ensures: returns the packed bits of this genome
+     *
+     * @return the words backing this genome
+     */
+    public long[] words() {
+        return this.words;
+    }
+
+    /**
+     * ensures: returns the bit at the given index
+     *
+     * @param index the index of the bit
+     * @return whether the bit is set
+     */
+    public boolean get(int index) {
+        return (this.words[index >>> WORD_SHIFT] & (1L << index)) != 0;
+    }
+
+    /**
+     * ensures: flips the bit at the given index, callers are responsible for
+     * recalculating the fitness afterwards
+     *
+     * @param index the index of the bit
+     */
+    public void flip(int index) {
+        this.words[index >>> WORD_SHIFT] ^= 1L << index;
+    }
+
+    /**
+     * ensures: returns the number of bits set to 1
+     *
+     * @return the population count of the genome
+     */
+    public int bitCount() {
+        int ones = 0;
+        for (long word : this.words) {
+            ones += Long.bitCount(word);
+        }
+        return ones;
+    }
+
+    /**
+     * ensures: sets the fitness to the fraction of bits set to 1
+     */
+    public void calculateFitness() {
+        this.ones = this.bitCount();
+        this.fitness = (double) this.ones / this.size;
+    }
+
+    /**
+     * ensures: sets the fitness of a freshly crossed over child from the partial
+     * fitness of its parents
+     *
+     * @param mother         the parent of the prefix
+     * @param father         the parent of the suffix
+     * @param crossoverIndex the first bit taken from the father
+     */
+    protected void fitnessFromParents(PackedBitstring mother, PackedBitstring father, int crossoverIndex) {
+        this.ones = (int) DeltaEvaluable.crossoverFitness(mother, father, crossoverIndex, this.size);
+        this.fitness = (double) this.ones / this.size;
+    }
+
+    @Override
+    public double rawFitness() {
+        return this.ones;
+    }
+
+    @Override
+    public double partialFitness(int from, int to) {
+        if (from >= to) {
+            return 0;
+        }
+        int first = from >>> WORD_SHIFT;
+        int last = (to - 1) >>> WORD_SHIFT;
+        // the masks drop the bits before from and from to onwards
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (WORD_MASK - ((to - 1) & WORD_MASK));
+        if (first == last) {
+            return Long.bitCount(this.words[first] & firstMask & lastMask);
+        }
+
+        int ones = Long.bitCount(this.words[first] & firstMask) + Long.bitCount(this.words[last] & lastMask);
+        for (int word = first + 1; word < last; word++) {
+            ones += Long.bitCount(this.words[word]);
+        }
+        return ones;
+    }
+
+    @Override
+    public void updateFitness(int[] changedLoci, int changedCount) {
+        for (int i = 0; i < changedCount; i++) {
+            // a bit that is now set was clear before the change, and vice versa
+            this.ones += this.get(changedLoci[i]) ? 1 : -1;
+        }
+        this.fitness = (double) this.ones / this.size;
+    }
+
+    @Override
+    public ArrayList<Genome> crossover(Genome other) {
+        return this.crossover(other, this.rand);
+    }
+
+    @Override
+    public ArrayList<Genome> crossover(Genome other, Random rand) {
+        int crossoverIndex = rand.nextInt(this.size);
+        ArrayList<Genome> children = new ArrayList<Genome>(2);
+        children.add(this.createChild(this, (PackedBitstring) other, crossoverIndex));
+        children.add(this.createChild((PackedBitstring) other, this, crossoverIndex));
+        return children;
+    }
+
+    /**
+     * ensures: crosses over into two retired genomes of the same class and size
+     * as this one by copying the words in place, and returns false for any other
+     * genomes so they are bred with createChild instead
+     */
+    @Override
+    public boolean crossoverInto(Genome other, Genome firstChild, Genome secondChild, Random rand) {
+        if (other.getClass() != this.getClass() || firstChild.getClass() != this.getClass()
+                || secondChild.getClass() != this.getClass() || other.size() != this.size
+                || firstChild.size() != this.size || secondChild.size() != this.size) {
+            return false;
+        }
+        int crossoverIndex = rand.nextInt(this.size);
+        ((PackedBitstring) firstChild).inherit(this, (PackedBitstring) other, crossoverIndex);
+        ((PackedBitstring) secondChild).inherit((PackedBitstring) other, this, crossoverIndex);
+        return true;
+    }
+
+    /**
+     * ensures: creates a child of the two parents, subclasses override this so
+     * crossover produces children of their own type
+     *
+     * @param mother         the parent of the prefix
+     * @param father         the parent of the suffix
+     * @param crossoverIndex the first bit taken from the father
+     * @return the child
+     */
+    protected PackedBitstring createChild(PackedBitstring mother, PackedBitstring father, int crossoverIndex) {
+        return new PackedBitstring(mother, father, crossoverIndex);
+    }
+
+    @Override
+    public void mutate(double mutationRate) {
+        this.mutate(mutationRate, this.rand);
+    }
+
+    @Override
+    public void mutate(double mutationRate, Random rand) {
+        if (mutationRate <= 0) {
+            return;
+        }
+
+        if (mutationRate >= 1) {
+            for (int word = 0; word < this.words.length; word++) {
+                this.words[word] = ~this.words[word];
+            }
+            this.clearUnusedBits();
+            this.calculateFitness();
+            return;
+        }
+
+        if (mutationRate >= DENSE_MUTATION_RATE) {
+            // flips are too close together for skipping to pay, flip a whole mask
+            long[] mask = new long[this.words.length];
+            GeneKernels.bitFlipMask(mask, this.size, mutationRate, rand);
+            for (int word = 0; word < this.words.length; word++) {
+                this.ones -= Long.bitCount(this.words[word]);
+                this.words[word] ^= mask[word];
+                this.ones += Long.bitCount(this.words[word]);
+            }
+            this.fitness = (double) this.ones / this.size;
+            return;
+        }
+
+        // the gaps between flipped bits are geometrically distributed, so jump
+        // straight from one flip to the next instead of rolling for every bit
+        double logSkip = Math.log1p(-mutationRate);
+        int[] flipped = new int[4];
+        int flips = 0;
+        long index = nextGap(rand, logSkip);
+        while (index < this.size) {
+            this.flip((int) index);
+            if (flips == flipped.length) {
+                flipped = Arrays.copyOf(flipped, flips << 1);
+            }
+            flipped[flips++] = (int) index;
+            index += 1 + nextGap(rand, logSkip);
+        }
+
+        this.updateFitness(flipped, flips);
+    }
+
+    /**
+     * ensures: returns the number of bits to skip before the next flip
+     *
+     * @param rand    the source of randomness
+     * @param logSkip the log of the probability of not flipping a bit
+     * @return the number of unflipped bits before the next flipped one
+     */
+    private static long nextGap(Random rand, double logSkip) {
+        // 1 - nextDouble() is in (0, 1], avoiding log(0), and the cap keeps the
+        // running index from overflowing when the rate is tiny
+        return (long) Math.min(Math.log(1.0 - rand.nextDouble()) / logSkip, Integer.MAX_VALUE);
+    }
+
+    /**
+     * ensures: zeroes the bits of the last word past the end of the genome so they
+     * never count towards the fitness
+     */
+    private void clearUnusedBits() {
+        int used = this.size & WORD_MASK;
+        if (used != 0) {
+            this.words[this.words.length - 1] &= (1L << used) - 1;
+        }
+    }
+
+    // only used by the cache and deduplication for pending genomes, which this
+    // genome never is since it evaluates eagerly
+    @Override
+    public Object contentKey() {
+        return BitSet.valueOf(this.words);
+    }
+
+    @Override
+    public void copyGenesTo(double[] destination, int offset) {
+        for (int word = 0; word < this.words.length; word++) {
+            long bits = this.words[word];
+            int base = word << WORD_SHIFT;
+            int end = Math.min(this.size - base, Long.SIZE);
+            for (int bit = 0; bit < end; bit++) {
+                destination[offset + base + bit] = (bits >>> bit) & 1L;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder bits = new StringBuilder(this.size);
+        for (int index = 0; index < this.size; index++) {
+            bits.append(this.get(index) ? '1' : '0');
+        }
+        return bits.toString();
+    }
+}
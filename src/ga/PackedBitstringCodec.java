@@ -0,0 +1,66 @@
+package ga;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * encodes a PackedBitstring as its length followed by its packed words
+ *
+ * the length read is not trusted: the words array only grows as words actually
+ * arrive, so a corrupt or hostile length fails at the end of the input instead
+ * of allocating gigabytes, and a codec made for one genome length rejects any
+ * other
+ */
+public class PackedBitstringCodec implements GenomeCodec<PackedBitstring> {
+    // words allocated before any have been read
+    private static final int INITIAL_WORDS = 64;
+
+    private int genomeLength;
+
+    /**
+     * ensures: instantiates a codec for bitstrings of any length
+     */
+    public PackedBitstringCodec() {
+        this(-1);
+    }
+
+    /**
+     * ensures: instantiates a codec that only reads bitstrings of the given
+     * length
+     *
+     * @param genomeLength the number of bits every genome read must have, or -1
+     *                     for any
+     */
+    public PackedBitstringCodec(int genomeLength) {
+        this.genomeLength = genomeLength;
+    }
+
+    @Override
+    public void write(PackedBitstring genome, DataOutput out) throws IOException {
+        out.writeInt(genome.size());
+        for (long word : genome.words()) {
+            out.writeLong(word);
+        }
+    }
+
+    @Override
+    public PackedBitstring read(DataInput in, Random rand) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || (this.genomeLength >= 0 && length != this.genomeLength)) {
+            throw new IOException("Invalid bitstring length " + length);
+        }
+        int wordCount = PackedBitstring.wordCount(length);
+        long[] words = new long[Math.min(wordCount, INITIAL_WORDS)];
+        for (int word = 0; word < wordCount; word++) {
+            if (word == words.length) {
+                long[] grown = new long[(int) Math.min((long) words.length << 1, wordCount)];
+                System.arraycopy(words, 0, grown, 0, words.length);
+                words = grown;
+            }
+            words[word] = in.readLong();
+        }
+        return new PackedBitstring(words, length, rand);
+    }
+}
@@ -0,0 +1,209 @@
+package ga;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * breeds, mutates and evaluates the children of a generation across several
+ * threads
+ *
+ * every mating is given its own seed when it is scheduled, so the children
+ * produced only depend on the order the matings were scheduled in and never on
+ * how many threads run them
+ */
+class ParallelBreeder<T extends Genome> {
+    // split the work into a few more chunks than threads so slow chunks even out
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ExecutorService executor;
+    // only pools the breeder created itself are shut down by it
+    private boolean ownsExecutor;
+    private int parallelism;
+
+    private ArrayList<T> mothers;
+    private ArrayList<T> fathers;
+    private long[] seeds;
+    // retired genomes to recycle into each mating's children, null when there are none
+    private ArrayList<T> firstSlots;
+    private ArrayList<T> secondSlots;
+
+    /**
+     * ensures: instantiates a breeder backed by its own fork join pool
+     *
+     * @param parallelism the number of threads to breed with
+     */
+    public ParallelBreeder(int parallelism) {
+        this(new ForkJoinPool(parallelism), parallelism);
+        this.ownsExecutor = true;
+    }
+
+    /**
+     * ensures: instantiates a breeder backed by the given executor, which it
+     * never shuts down
+     *
+     * @param executor    the executor to run breeding tasks on
+     * @param parallelism the number of threads the executor provides
+     */
+    public ParallelBreeder(ExecutorService executor, int parallelism) {
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.mothers = new ArrayList<T>();
+        this.fathers = new ArrayList<T>();
+        this.seeds = new long[16];
+        this.firstSlots = new ArrayList<T>();
+        this.secondSlots = new ArrayList<T>();
+    }
+
+    /**
+     * ensures: records a mating to be carried out by the next call to breed
+     *
+     * @param mother the first parent
+     * @param father the second parent
+     * @param seed   the seed for all randomness used by this mating
+     */
+    public void schedule(T mother, T father, long seed) {
+        this.schedule(mother, father, seed, null, null);
+    }
+
+    /**
+     * ensures: records a mating whose children overwrite two retired genomes when
+     * the parents support it
+     *
+     * @param mother      the first parent
+     * @param father      the second parent
+     * @param seed        the seed for all randomness used by this mating
+     * @param firstChild  a retired genome to become the first child, or null
+     * @param secondChild a retired genome to become the second child, or null
+     */
+    public void schedule(T mother, T father, long seed, T firstChild, T secondChild) {
+        this.firstSlots.add(firstChild);
+        this.secondSlots.add(secondChild);
+        int mating = this.mothers.size();
+        if (mating == this.seeds.length) {
+            long[] grown = new long[mating << 1];
+            System.arraycopy(this.seeds, 0, grown, 0, mating);
+            this.seeds = grown;
+        }
+        this.mothers.add(mother);
+        this.fathers.add(father);
+        this.seeds[mating] = seed;
+    }
+
+    /**
+     * ensures: crosses over and mutates every scheduled mating in parallel and
+     * clears the schedule
+     *
+     * @param mutationRate the mutation rate for every child
+     * @return the children in the order their matings were scheduled
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public ArrayList<T> breed(double mutationRate) {
+        int matings = this.mothers.size();
+        ArrayList<Genome>[] litters = new ArrayList[matings];
+
+        this.inChunks(matings, (start, end) -> {
+            for (int mating = start; mating < end; mating++) {
+                Random rand = new Random(this.seeds[mating]);
+                T mother = this.mothers.get(mating);
+                T firstChild = this.firstSlots.get(mating);
+                T secondChild = this.secondSlots.get(mating);
+                ArrayList<Genome> litter;
+                if (firstChild != null
+                        && mother.crossoverInto(this.fathers.get(mating), firstChild, secondChild, rand)) {
+                    litter = new ArrayList<Genome>(2);
+                    litter.add(firstChild);
+                    litter.add(secondChild);
+                } else {
+                    litter = mother.crossover(this.fathers.get(mating), rand);
+                }
+                for (Genome child : litter) {
+                    child.mutate(mutationRate, rand);
+                }
+                litters[mating] = litter;
+            }
+        });
+
+        ArrayList<T> children = new ArrayList<T>(matings << 1);
+        for (ArrayList<Genome> litter : litters) {
+            children.addAll((ArrayList<T>) litter);
+        }
+        this.mothers.clear();
+        this.fathers.clear();
+        this.firstSlots.clear();
+        this.secondSlots.clear();
+        return children;
+    }
+
+    /**
+     * ensures: evaluates every genome whose evaluation is pending in parallel
+     *
+     * @param genomes the genomes to evaluate
+     */
+    public void evaluate(ArrayList<? extends Genome> genomes) {
+        this.inChunks(genomes.size(), (start, end) -> {
+            for (int i = start; i < end; i++) {
+                genomes.get(i).evaluate();
+            }
+        });
+    }
+
+    /**
+     * ensures: splits [0, items) into contiguous chunks and runs the task on each
+     * chunk in parallel, returning once every chunk is done
+     *
+     * @param items the number of items to process
+     * @param task  the work to do for a chunk
+     */
+    private void inChunks(int items, Chunk task) {
+        int chunks = Math.min(items, this.parallelism * CHUNKS_PER_THREAD);
+        ArrayList<Callable<Void>> tasks = new ArrayList<Callable<Void>>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int start = (int) ((long) items * chunk / chunks);
+            int end = (int) ((long) items * (chunk + 1) / chunks);
+            tasks.add(() -> {
+                task.process(start, end);
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> result : this.executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while breeding the next generation", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Breeding the next generation failed", e.getCause());
+        }
+    }
+
+    /**
+     * ensures: returns the executor the breeder runs on
+     *
+     * @return the executor
+     */
+    ExecutorService executor() {
+        return this.executor;
+    }
+
+    /**
+     * ensures: stops the threads used for breeding if the breeder created them,
+     * leaving an executor it was given to its owner
+     */
+    public void shutdown() {
+        if (this.ownsExecutor) {
+            this.executor.shutdown();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Chunk {
+        void process(int start, int end);
+    }
+}
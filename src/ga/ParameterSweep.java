@@ -0,0 +1,367 @@
+package ga;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * runs a genetic algorithm for every combination of a grid of settings and
+ * seeds, concurrently in one JVM, and gathers the outcome of every run into one
+ * csv file
+ *
+ * each run gets its own GAConfig, the base config with the values of its grid
+ * point, so runs never see each other's settings. results are written in grid
+ * order whatever order the runs finish in, so a sweep with the same grid always
+ * writes the same rows. runs only breed in parallel themselves if their config
+ * sets parallelism, which is best left unset when the sweep keeps every thread
+ * busy
+ *
+ * a checkpoint.path is suffixed with the grid point and seed of each run, so
+ * runs never overwrite each other's checkpoints. metrics.summary.interval is
+ * rejected, since the unlabelled summaries of concurrent runs would interleave
+ * on standard out
+ */
+public class ParameterSweep<T extends Genome> {
+    private GAConfig baseConfig;
+    private PopulationFactory<T> populationFactory;
+    private LinkedHashMap<String, List<String>> grid = new LinkedHashMap<String, List<String>>();
+    private long[] seeds = { 0 };
+    private GenomeCodec<T> checkpointCodec;
+
+    /**
+     * ensures: instantiates a sweep over no settings with the single seed 0
+     *
+     * @param baseConfig        the settings every run starts from
+     * @param populationFactory creates the initial population of each run
+     */
+    public ParameterSweep(GAConfig baseConfig, PopulationFactory<T> populationFactory) {
+        this.baseConfig = baseConfig;
+        this.populationFactory = populationFactory;
+    }
+
+    /**
+     * ensures: adds a setting to the grid, every run is repeated for each of its
+     * values
+     *
+     * @param key    the name of the setting, such as mutation.rate
+     * @param values the values to try, which must not contain commas
+     * @return this sweep
+     */
+    public ParameterSweep<T> vary(String key, String... values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("The sweep needs at least one value for " + key);
+        }
+        this.grid.put(key, List.of(values));
+        return this;
+    }
+
+    /**
+     * ensures: sets the seeds every grid point is run with
+     *
+     * @param seeds the seeds of the Random each run is given
+     * @return this sweep
+     */
+    public ParameterSweep<T> seeds(long... seeds) {
+        if (seeds.length == 0) {
+            throw new IllegalArgumentException("The sweep needs at least one seed");
+        }
+        this.seeds = seeds.clone();
+        return this;
+    }
+
+    /**
+     * ensures: every run writes checkpoints to checkpoint.path suffixed with its
+     * grid point and seed, such as run.checkpoint-point3-seed7
+     * requires: checkpoint.interval and checkpoint.path are set in every run's
+     * config
+     *
+     * @param codec the encoding of the genomes
+     * @return this sweep
+     */
+    public ParameterSweep<T> checkpoints(GenomeCodec<T> codec) {
+        this.checkpointCodec = codec;
+        return this;
+    }
+
+    /**
+     * ensures: returns the number of runs in the sweep
+     *
+     * @return the number of grid points times the number of seeds
+     */
+    public int size() {
+        int size = this.seeds.length;
+        for (List<String> values : this.grid.values()) {
+            size *= values.size();
+        }
+        return size;
+    }
+
+    /**
+     * ensures: carries out every run on a pool of its own, then stops the pool
+     *
+     * @param generations the most generations each run may take
+     * @param threads     the most runs at once
+     * @param logger      the logger to write the results with, or null
+     * @param filename    the file the results are written to
+     * @return the result of every run, in grid order
+     */
+    public ArrayList<Result> run(int generations, int threads, CSVLogger logger, String filename) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "Parameter sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            return this.run(generations, executor, logger, filename);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * ensures: carries out every run on the given executor, writing each result
+     * as soon as it and all results before it are done
+     *
+     * @param generations the most generations each run may take
+     * @param executor    the executor to run on, its thread count bounds the runs
+     *                    at once
+     * @param logger      the logger to write the results with, or null
+     * @param filename    the file the results are written to
+     * @return the result of every run, in grid order
+     */
+    public ArrayList<Result> run(int generations, ExecutorService executor, CSVLogger logger, String filename) {
+        ArrayList<String> keys = new ArrayList<String>(this.grid.keySet());
+        if (logger != null) {
+            ArrayList<String> headers = new ArrayList<String>();
+            headers.add("Seed");
+            headers.addAll(keys);
+            headers.addAll(List.of("Generations", "Evaluations", "Best Fitness", "Mean Fitness", "Termination",
+                    "Milliseconds"));
+            try {
+                logger.createNewFile(filename, headers);
+            } catch (FileNotFoundException e) {
+                throw new RuntimeException("Could not create the sweep results " + filename, e);
+            }
+        }
+
+        ArrayList<Map<String, String>> points = this.points(keys);
+        ArrayList<GAConfig> configs = new ArrayList<GAConfig>(points.size());
+        for (Map<String, String> point : points) {
+            GAConfig config = this.baseConfig;
+            for (Map.Entry<String, String> setting : point.entrySet()) {
+                config = config.with(setting.getKey(), setting.getValue());
+            }
+            if (config.getInt("metrics.summary.interval", 0) > 0) {
+                throw new IllegalArgumentException("metrics.summary.interval cannot be set in a sweep, use the "
+                        + "JMX metrics or the results file instead");
+            }
+            configs.add(config);
+        }
+
+        ArrayList<Future<Result>> futures = new ArrayList<Future<Result>>(this.size());
+        for (int index = 0; index < points.size(); index++) {
+            GAConfig config = configs.get(index);
+            String checkpointPath = config.get("checkpoint.path");
+            for (long seed : this.seeds) {
+                GAConfig runConfig = checkpointPath == null ? config
+                        : config.with("checkpoint.path", checkpointPath + "-point" + index + "-seed" + seed);
+                futures.add(executor.submit(this.task(runConfig, points.get(index), seed, generations)));
+            }
+        }
+
+        ArrayList<Result> results = new ArrayList<Result>(futures.size());
+        try {
+            for (Future<Result> future : futures) {
+                Result result = future.get();
+                results.add(result);
+                if (logger != null) {
+                    logger.appendRowToFile(filename, result.toRow(keys));
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelAll(futures);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the sweep", e);
+        } catch (ExecutionException e) {
+            cancelAll(futures);
+            throw new RuntimeException("A run of the sweep failed", e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * ensures: returns every combination of the values of the grid, the last key
+     * varying fastest
+     *
+     * @param keys the settings of the grid in order
+     * @return the grid points
+     */
+    private ArrayList<Map<String, String>> points(List<String> keys) {
+        ArrayList<Map<String, String>> points = new ArrayList<Map<String, String>>();
+        points.add(new LinkedHashMap<String, String>());
+        for (String key : keys) {
+            ArrayList<Map<String, String>> extended = new ArrayList<Map<String, String>>();
+            for (Map<String, String> point : points) {
+                for (String value : this.grid.get(key)) {
+                    LinkedHashMap<String, String> next = new LinkedHashMap<String, String>(point);
+                    next.put(key, value);
+                    extended.add(next);
+                }
+            }
+            points = extended;
+        }
+        return points;
+    }
+
+    /**
+     * ensures: returns the task carrying out one run
+     *
+     * @param config      the settings of the run
+     * @param point       the values of the grid settings
+     * @param seed        the seed of the run
+     * @param generations the most generations the run may take
+     * @return the task
+     */
+    private Callable<Result> task(GAConfig config, Map<String, String> point, long seed, int generations) {
+        return () -> {
+            long start = System.nanoTime();
+            Random rand = new Random(seed);
+            GeneticAlgorithm<T> ga = new GeneticAlgorithm<T>(config, this.populationFactory.create(config, rand),
+                    rand, new ArrayList<Logger<T>>());
+            try {
+                if (this.checkpointCodec != null) {
+                    ga.useCheckpoints(this.checkpointCodec);
+                }
+                ga.run(generations);
+                return new Result(point, seed, ga.generation(), ga.evaluations(), ga.bestSoFar().fitness(),
+                        ga.statistics().mean(), ga.termination(), System.nanoTime() - start);
+            } finally {
+                ga.close(); // its threads and MBean would outlive the run otherwise
+            }
+        };
+    }
+
+    private static void cancelAll(List<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    @FunctionalInterface
+    public interface PopulationFactory<T> {
+        /**
+         * ensures: returns the initial population of a run
+         *
+         * @param config the settings of the run
+         * @param rand   the Random of the run, which the algorithm is given too
+         * @return the genomes to start from
+         */
+        ArrayList<T> create(GAConfig config, Random rand);
+    }
+
+    /**
+     * the outcome of one run of a sweep
+     */
+    public static class Result {
+        private Map<String, String> parameters;
+        private long seed;
+        private int generations;
+        private long evaluations;
+        private double bestFitness;
+        private double meanFitness;
+        private GeneticAlgorithm.Termination termination;
+        private long nanos;
+
+        Result(Map<String, String> parameters, long seed, int generations, long evaluations, double bestFitness,
+                double meanFitness, GeneticAlgorithm.Termination termination, long nanos) {
+            this.parameters = parameters;
+            this.seed = seed;
+            this.generations = generations;
+            this.evaluations = evaluations;
+            this.bestFitness = bestFitness;
+            this.meanFitness = meanFitness;
+            this.termination = termination;
+            this.nanos = nanos;
+        }
+
+        /**
+         * ensures: returns the values of the grid settings of the run
+         *
+         * @return the setting names mapped to their values
+         */
+        public Map<String, String> parameters() {
+            return this.parameters;
+        }
+
+        public long seed() {
+            return this.seed;
+        }
+
+        public int generations() {
+            return this.generations;
+        }
+
+        public long evaluations() {
+            return this.evaluations;
+        }
+
+        /**
+         * ensures: returns the fitness of the fittest genome of any generation
+         *
+         * @return bestFitness
+         */
+        public double bestFitness() {
+            return this.bestFitness;
+        }
+
+        /**
+         * ensures: returns the mean fitness of the final population
+         *
+         * @return meanFitness
+         */
+        public double meanFitness() {
+            return this.meanFitness;
+        }
+
+        /**
+         * ensures: returns why the run stopped early
+         *
+         * @return the criterion met, or null if the run took every generation
+         */
+        public GeneticAlgorithm.Termination termination() {
+            return this.termination;
+        }
+
+        public long nanos() {
+            return this.nanos;
+        }
+
+        /**
+         * ensures: formats the result as a csv row
+         *
+         * @param keys the settings of the grid in column order
+         * @return the row
+         */
+        String toRow(List<String> keys) {
+            StringBuilder row = new StringBuilder().append(this.seed);
+            for (String key : keys) {
+                row.append(',').append(this.parameters.get(key));
+            }
+            row.append(',').append(this.generations)
+                    .append(',').append(this.evaluations)
+                    .append(',').append(this.bestFitness)
+                    .append(',').append(this.meanFitness)
+                    .append(',').append(this.termination == null ? "" : this.termination)
+                    .append(',').append(this.nanos / 1_000_000);
+            return row.toString();
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package ga;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * a genome that is an ordering of the numbers 0 to size - 1, stored in an int[],
+ * for routing (TSP) and scheduling problems
+ *
+ * subclasses only provide the fitness function and implement Cloneable, the
+ * standard operators are built in: order (OX) or partially mapped (PMX)
+ * crossover, and swap or inversion mutation, all of which keep the genes a
+ * permutation. children are cloned from a parent and evaluated lazily, and with
+ * genome.recycling they reuse the arrays of retired genomes
+ */
+public abstract class PermutationGenome extends Genome implements Cloneable {
+    // per thread scratch space for the crossover operators
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    protected int[] genes;
+
+    // the operators, subclasses may change them in their constructor
+    protected Crossover crossoverOperator = Crossover.ORDER;
+    protected Mutation mutationOperator = Mutation.SWAP;
+
+    /**
+     * ensures: instantiates a genome holding a uniformly random permutation
+     *
+     * @param length the number of genes
+     * @param rand   the source of randomness
+     */
+    public PermutationGenome(int length, Random rand) {
+        this(identity(length), rand);
+        for (int i = length - 1; i > 0; i--) {
+            swap(this.genes, i, rand.nextInt(i + 1));
+        }
+    }
+
+    /**
+     * ensures: instantiates a genome holding the given permutation
+     * requires: genes holds every number from 0 to genes.length - 1 once
+     *
+     * @param genes the permutation, which the genome takes ownership of
+     * @param rand  the source of randomness
+     */
+    public PermutationGenome(int[] genes, Random rand) {
+        super(genes.length, rand);
+        this.genes = genes;
+        this.invalidateFitness();
+    }
+
+    /**
+     * ensures: returns the fitness of the given permutation
+     *
+     * @param genes the permutation to evaluate, which must not be modified
+     * @return the fitness
+     */
+    protected abstract double fitnessOf(int[] genes);
+
+    /**
+     * ensures: returns the genes of this genome
+     *
+     * @return the permutation, which must not be modified
+     */
+    public int[] genes() {
+        return this.genes;
+    }
+
+    @Override
+    protected void calculateFitness() {
+        this.fitness = this.fitnessOf(this.genes);
+    }
+
+    @Override
+    public ArrayList<Genome> crossover(Genome other) {
+        return this.crossover(other, this.rand);
+    }
+
+    @Override
+    public ArrayList<Genome> crossover(Genome other, Random rand) {
+        PermutationGenome first = this.copy();
+        PermutationGenome second = this.copy();
+        this.breed((PermutationGenome) other, first, second, rand);
+        ArrayList<Genome> children = new ArrayList<Genome>(2);
+        children.add(first);
+        children.add(second);
+        return children;
+    }
+
+    @Override
+    public boolean crossoverInto(Genome other, Genome firstChild, Genome secondChild, Random rand) {
+        if (other.getClass() != this.getClass() || firstChild.getClass() != this.getClass()
+                || secondChild.getClass() != this.getClass() || other.size() != this.size
+                || firstChild.size() != this.size || secondChild.size() != this.size) {
+            return false;
+        }
+        this.breed((PermutationGenome) other, (PermutationGenome) firstChild, (PermutationGenome) secondChild,
+                rand);
+        return true;
+    }
+
+    @Override
+    public void mutate(double mutationRate) {
+        this.mutate(mutationRate, this.rand);
+    }
+
+    /**
+     * ensures: starts a mutation at each position with the given probability,
+     * either swapping it with a random position or reversing the segment between
+     * them
+     */
+    @Override
+    public void mutate(double mutationRate, Random rand) {
+        if (mutationRate <= 0 || this.size < 2) {
+            return;
+        }
+        boolean changed = false;
+        for (int position = 0; position < this.size; position++) {
+            if (rand.nextDouble() >= mutationRate) {
+                continue;
+            }
+            int other = rand.nextInt(this.size);
+            if (this.mutationOperator == Mutation.INVERSION) {
+                int from = Math.min(position, other);
+                int to = Math.max(position, other);
+                while (from < to) {
+                    swap(this.genes, from++, to--);
+                }
+            } else {
+                swap(this.genes, position, other);
+            }
+            changed |= other != position;
+        }
+        if (changed) {
+            this.invalidateFitness();
+        }
+    }
+
+    @Override
+    public Object contentKey() {
+        return IntBuffer.wrap(this.genes.clone());
+    }
+
+    @Override
+    public void copyGenesTo(double[] destination, int offset) {
+        for (int gene = 0; gene < this.size; gene++) {
+            destination[offset + gene] = this.genes[gene];
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.genes);
+    }
+
+    /**
+     * ensures: writes the children of this genome and the other into the given
+     * genomes with the chosen crossover operator, both using the same segment
+     *
+     * @param other  the second parent
+     * @param first  the genome to become the first child
+     * @param second the genome to become the second child
+     * @param rand   the source of randomness
+     */
+    private void breed(PermutationGenome other, PermutationGenome first, PermutationGenome second, Random rand) {
+        int a = rand.nextInt(this.size);
+        int b = rand.nextInt(this.size);
+        int from = Math.min(a, b);
+        int to = Math.max(a, b) + 1;
+        Scratch scratch = SCRATCH.get();
+        if (this.crossoverOperator == Crossover.PARTIALLY_MAPPED) {
+            partiallyMapped(this.genes, other.genes, from, to, first.genes, scratch);
+            partiallyMapped(other.genes, this.genes, from, to, second.genes, scratch);
+        } else {
+            order(this.genes, other.genes, from, to, first.genes, scratch);
+            order(other.genes, this.genes, from, to, second.genes, scratch);
+        }
+        first.rand = this.rand;
+        second.rand = this.rand;
+        first.invalidateFitness();
+        second.invalidateFitness();
+    }
+
+    /**
+     * ensures: order crossover, the child keeps the segment of the donor and fills
+     * the other positions, starting after the segment, with the remaining genes
+     * in the order they appear in the other parent
+     *
+     * @param donor the parent the segment comes from
+     * @param other the parent the order of the rest comes from
+     * @param from  the first position of the segment
+     * @param to    the position after the segment
+     * @param child   the genes to write
+     * @param scratch the calling thread's scratch space
+     */
+    private static void order(int[] donor, int[] other, int from, int to, int[] child, Scratch scratch) {
+        int length = donor.length;
+        int stamp = scratch.nextStamp(length);
+        for (int i = from; i < to; i++) {
+            child[i] = donor[i];
+            scratch.marks[donor[i]] = stamp;
+        }
+        int write = to % length;
+        for (int k = 0; k < length; k++) {
+            int gene = other[(to + k) % length];
+            if (scratch.marks[gene] != stamp) {
+                child[write] = gene;
+                write = (write + 1) % length;
+            }
+        }
+    }
+
+    /**
+     * ensures: partially mapped crossover, the child starts as the other parent
+     * and takes the segment of the donor by swapping each donor gene into place,
+     * which keeps the mapping of displaced genes
+     *
+     * @param donor the parent the segment comes from
+     * @param other the parent the rest comes from
+     * @param from  the first position of the segment
+     * @param to    the position after the segment
+     * @param child   the genes to write
+     * @param scratch the calling thread's scratch space
+     */
+    private static void partiallyMapped(int[] donor, int[] other, int from, int to, int[] child, Scratch scratch) {
+        int length = donor.length;
+        int[] positions = scratch.positions(length);
+        System.arraycopy(other, 0, child, 0, length);
+        for (int i = 0; i < length; i++) {
+            positions[child[i]] = i;
+        }
+        for (int i = from; i < to; i++) {
+            int gene = donor[i];
+            int at = positions[gene];
+            int displaced = child[i];
+            child[i] = gene;
+            child[at] = displaced;
+            positions[gene] = i;
+            positions[displaced] = at;
+        }
+    }
+
+    /**
+     * ensures: returns a copy of this genome with its own genes
+     *
+     * @return the copy
+     */
+    private PermutationGenome copy() {
+        try {
+            PermutationGenome copy = (PermutationGenome) this.clone();
+            copy.genes = this.genes.clone();
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(this.getClass().getName() + " must implement Cloneable", e);
+        }
+    }
+
+    private static int[] identity(int length) {
+        int[] genes = new int[length];
+        for (int i = 0; i < length; i++) {
+            genes[i] = i;
+        }
+        return genes;
+    }
+
+    private static void swap(int[] genes, int i, int j) {
+        int temp = genes[i];
+        genes[i] = genes[j];
+        genes[j] = temp;
+    }
+
+    /**
+     * reusable arrays for the crossover operators. marks use a stamp that changes
+     * every use so they never need clearing
+     */
+    private static class Scratch {
+        private int[] marks = new int[0];
+        private int[] positions = new int[0];
+        private int stamp;
+
+        int nextStamp(int length) {
+            if (this.marks.length < length || this.stamp == Integer.MAX_VALUE) {
+                this.marks = new int[Math.max(length, this.marks.length)];
+                this.stamp = 0;
+            }
+            return ++this.stamp;
+        }
+
+        int[] positions(int length) {
+            if (this.positions.length < length) {
+                this.positions = new int[length];
+            }
+            return this.positions;
+        }
+    }
+
+    /**
+     * how two permutations are combined
+     */
+    public enum Crossover {
+        // OX, keeps a segment of one parent and the relative order of the other
+        ORDER,
+        // PMX, keeps a segment of one parent and the positions of the other
+        PARTIALLY_MAPPED
+    }
+
+    /**
+     * how a permutation is changed
+     */
+    public enum Mutation {
+        // exchanges two positions
+        SWAP,
+        // reverses the segment between two positions, the 2-opt move for tours
+        INVERSION
+    }
+}
@@ -0,0 +1,377 @@
+package ga;
+
+import java.util.Random;
+
+/**
+ * an allocation free alternative to GeneticAlgorithm for bitstring genomes
+ *
+ * the genes of the whole population live in one long[] (64 genes per long, one
+ * fixed width row per individual) and their fitness values in one double[].
+ * children are bred straight into a second, preallocated buffer which then
+ * becomes the population, so once constructed a run allocates nothing
+ *
+ * breeding follows GeneticAlgorithm: a full population of children is bred with
+ * single point crossover and mutated, the fittest children survive and the
+ * elites of the previous generation are carried over in place of the rest.
+ * parents are drawn uniformly from the fittest half (truncation) or in
+ * proportion to their fitness (roulette), like ProportionalSelection
+ */
+public class PopulationArena {
+    private static final int MAX_PARENT_REDRAWS = 8;
+
+    private Random rand;
+    private ArenaFitness fitnessFunction;
+    private int generation;
+
+    private int genomeLength;
+    private int words;
+    private long lastWordMask;
+
+    // the population and the children being bred, swapped every generation
+    private long[] genes;
+    private double[] fitness;
+    private long[] childGenes;
+    private double[] childFitness;
+    // scratch space for selecting the fittest rows
+    private int[] order;
+    private int[] childOrder;
+    // roulette weights and the table drawing from them, rebuilt every generation
+    private double[] weights;
+    private AliasTable table;
+
+    private int POPULATION_SIZE;
+    private int ELITE_COUNT;
+    private double MUTATION_RATE;
+    private boolean TRUNCATION;
+
+    /**
+     * ensures: instantiates a random population using the constants in the config
+     * file
+     *
+     * @param configFileName  the path of the config file to use
+     * @param genomeLength    the number of bits in each genome
+     * @param rand            the source of randomness
+     * @param fitnessFunction the function scoring each row of genes
+     */
+    public PopulationArena(String configFileName, int genomeLength, Random rand, ArenaFitness fitnessFunction) {
+        this(GAConfig.load(configFileName), genomeLength, rand, fitnessFunction);
+    }
+
+    /**
+     * ensures: instantiates a random population using the constants in the
+     * given settings, which no other algorithm in the JVM affects
+     *
+     * @param config          the settings to use
+     * @param genomeLength    the number of bits in each genome
+     * @param rand            the source of randomness
+     * @param fitnessFunction the function scoring each row of genes
+     */
+    public PopulationArena(GAConfig config, int genomeLength, Random rand, ArenaFitness fitnessFunction) {
+        this.verifyConstants(config);
+        this.rand = rand;
+        this.fitnessFunction = fitnessFunction;
+        this.generation = 0;
+
+        this.genomeLength = genomeLength;
+        this.words = PackedBitstring.wordCount(genomeLength);
+        this.lastWordMask = (genomeLength & 63) == 0 ? -1L : (1L << genomeLength) - 1;
+
+        this.genes = new long[this.POPULATION_SIZE * this.words];
+        this.fitness = new double[this.POPULATION_SIZE];
+        this.childGenes = new long[this.POPULATION_SIZE * this.words];
+        this.childFitness = new double[this.POPULATION_SIZE];
+        this.order = new int[this.POPULATION_SIZE];
+        if (!this.TRUNCATION) {
+            this.weights = new double[this.POPULATION_SIZE];
+            this.table = new AliasTable();
+        }
+        this.childOrder = new int[this.POPULATION_SIZE];
+
+        for (int row = 0; row < this.POPULATION_SIZE; row++) {
+            int offset = row * this.words;
+            for (int word = 0; word < this.words; word++) {
+                this.genes[offset + word] = rand.nextLong();
+            }
+            this.genes[offset + this.words - 1] &= this.lastWordMask;
+            this.fitness[row] = fitnessFunction.evaluate(this.genes, offset, genomeLength);
+        }
+    }
+
+    /**
+     * ensures: returns the current generation of the arena
+     *
+     * @return generation
+     */
+    public int generation() {
+        return this.generation;
+    }
+
+    /**
+     * ensures: returns the number of individuals in the population
+     *
+     * @return the population size
+     */
+    public int populationSize() {
+        return this.POPULATION_SIZE;
+    }
+
+    /**
+     * ensures: returns the number of longs in each row of genes
+     *
+     * @return the words per genome
+     */
+    public int wordsPerGenome() {
+        return this.words;
+    }
+
+    /**
+     * ensures: returns the genes of the current population, row i starts at
+     * i * wordsPerGenome()
+     * requires: the array is only valid until the next generation is bred
+     *
+     * @return the packed genes of every individual
+     */
+    public long[] genes() {
+        return this.genes;
+    }
+
+    /**
+     * ensures: returns the fitness values of the current population
+     * requires: the array is only valid until the next generation is bred
+     *
+     * @return the fitness of every individual
+     */
+    public double[] fitnessValues() {
+        return this.fitness;
+    }
+
+    /**
+     * ensures: returns the index of the fittest individual
+     *
+     * @return the row of the fittest individual
+     */
+    public int fittestIndex() {
+        int fittest = 0;
+        for (int row = 1; row < this.POPULATION_SIZE; row++) {
+            if (this.fitness[row] > this.fitness[fittest]) {
+                fittest = row;
+            }
+        }
+        return fittest;
+    }
+
+    /**
+     * ensures: copies an individual out of the arena as a standalone genome
+     *
+     * @param row the index of the individual
+     * @return a genome holding a copy of the individual's genes
+     */
+    public PackedBitstring genome(int row) {
+        long[] copy = new long[this.words];
+        System.arraycopy(this.genes, row * this.words, copy, 0, this.words);
+        return new PackedBitstring(copy, this.genomeLength, this.rand);
+    }
+
+    /**
+     * ensures: replaces the current population with the next generation
+     */
+    public void nextGeneration() {
+        for (int row = 0; row < this.POPULATION_SIZE; row++) {
+            this.order[row] = row;
+        }
+        // truncation breeds from the fittest half, which always contains the elites,
+        // and never from fewer than two rows so every mating has two parents
+        int parents = this.TRUNCATION ? Math.max(Math.max(this.POPULATION_SIZE >> 1, this.ELITE_COUNT), 2)
+                : this.POPULATION_SIZE;
+        TopK.select(this.order, this.fitness, this.POPULATION_SIZE, parents);
+        TopK.select(this.order, this.fitness, parents, this.ELITE_COUNT);
+
+        if (!this.TRUNCATION) {
+            this.prepareRoulette();
+        }
+        for (int child = 0; child < this.POPULATION_SIZE; child += 2) {
+            int mother, father;
+            if (this.TRUNCATION) {
+                mother = this.order[this.rand.nextInt(parents)];
+                father = this.order[this.rand.nextInt(parents - 1)];
+                if (father == mother) {
+                    father = this.order[parents - 1]; // ensure we don't end up using the same parent twice
+                }
+            } else {
+                mother = this.table.sample(this.rand);
+                father = this.table.sample(this.rand);
+                // redraw a few times so a row rarely mates with itself, but never
+                // loop forever when one row holds all the weight
+                for (int retry = 0; father == mother && retry < MAX_PARENT_REDRAWS; retry++) {
+                    father = this.table.sample(this.rand);
+                }
+            }
+            this.breed(mother, father, child);
+        }
+
+        // the elites replace the least fit children
+        for (int row = 0; row < this.POPULATION_SIZE; row++) {
+            this.childOrder[row] = row;
+        }
+        int survivors = this.POPULATION_SIZE - this.ELITE_COUNT;
+        TopK.select(this.childOrder, this.childFitness, this.POPULATION_SIZE, survivors);
+        for (int elite = 0; elite < this.ELITE_COUNT; elite++) {
+            int from = this.order[elite];
+            int to = this.childOrder[survivors + elite];
+            System.arraycopy(this.genes, from * this.words, this.childGenes, to * this.words, this.words);
+            this.childFitness[to] = this.fitness[from];
+        }
+
+        long[] swapGenes = this.genes;
+        this.genes = this.childGenes;
+        this.childGenes = swapGenes;
+        double[] swapFitness = this.fitness;
+        this.fitness = this.childFitness;
+        this.childFitness = swapFitness;
+        this.generation++;
+    }
+
+    /**
+     * ensures: builds the roulette table over the fitness of the population,
+     * shifting negative fitness so the least fit row has weight zero
+     */
+    private void prepareRoulette() {
+        double min = 0;
+        for (int row = 0; row < this.POPULATION_SIZE; row++) {
+            min = Math.min(min, this.fitness[row]);
+        }
+        for (int row = 0; row < this.POPULATION_SIZE; row++) {
+            this.weights[row] = this.fitness[row] - min;
+        }
+        this.table.build(this.weights, this.POPULATION_SIZE);
+    }
+
+    /**
+     * ensures: runs the arena for a designated number of generations
+     *
+     * @param generations the number of generations to run
+     * @return the row of the fittest individual at the end of the run
+     */
+    public int run(int generations) {
+        for (int i = 0; i < generations; i++) {
+            this.nextGeneration();
+        }
+        return this.fittestIndex();
+    }
+
+    /**
+     * ensures: crosses over two parents into the child rows starting at the given
+     * row, then mutates and evaluates the children
+     *
+     * @param mother the row of the first parent
+     * @param father the row of the second parent
+     * @param child  the row of the first child, the second child goes in the next
+     *               row if there is one
+     */
+    private void breed(int mother, int father, int child) {
+        int crossoverIndex = this.rand.nextInt(this.genomeLength);
+        int boundary = crossoverIndex >>> 6;
+        long motherMask = (1L << crossoverIndex) - 1;
+
+        for (int litter = 0; litter < 2 && child + litter < this.POPULATION_SIZE; litter++) {
+            int prefix = (litter == 0 ? mother : father) * this.words;
+            int suffix = (litter == 0 ? father : mother) * this.words;
+            int offset = (child + litter) * this.words;
+
+            System.arraycopy(this.genes, prefix, this.childGenes, offset, boundary);
+            this.childGenes[offset + boundary] = (this.genes[prefix + boundary] & motherMask)
+                    | (this.genes[suffix + boundary] & ~motherMask);
+            System.arraycopy(this.genes, suffix + boundary + 1, this.childGenes, offset + boundary + 1,
+                    this.words - boundary - 1);
+
+            this.mutate(offset);
+            this.childFitness[child + litter] = this.fitnessFunction.evaluate(this.childGenes, offset,
+                    this.genomeLength);
+        }
+    }
+
+    /**
+     * ensures: flips each gene of a child row with probability MUTATION_RATE,
+     * jumping geometrically from one flip to the next
+     *
+     * @param offset the start of the child row
+     */
+    private void mutate(int offset) {
+        if (this.MUTATION_RATE <= 0) {
+            return;
+        }
+        if (this.MUTATION_RATE >= 1) {
+            for (int word = offset; word < offset + this.words; word++) {
+                this.childGenes[word] = ~this.childGenes[word];
+            }
+            this.childGenes[offset + this.words - 1] &= this.lastWordMask;
+            return;
+        }
+
+        double logSkip = Math.log1p(-this.MUTATION_RATE);
+        double index = Math.log(1.0 - this.rand.nextDouble()) / logSkip;
+        while (index < this.genomeLength) {
+            int bit = (int) index;
+            this.childGenes[offset + (bit >>> 6)] ^= 1L << bit;
+            index = bit + 1 + Math.log(1.0 - this.rand.nextDouble()) / logSkip;
+        }
+    }
+
+    /**
+     * ensures: validates and instantiates the constants from the config
+     *
+     * @param config the settings to use
+     */
+    private void verifyConstants(GAConfig config) {
+        this.POPULATION_SIZE = config.getInt("population.size", -1);
+        this.ELITE_COUNT = config.getInt("elite.count", -1);
+        this.MUTATION_RATE = config.getDouble("mutation.rate", -1.0);
+        String selectionMethod = config.getString("selection.method", "");
+
+        if (this.POPULATION_SIZE == -1) {
+            System.out.println("Constant POPULATION_SIZE was not set. Default of 100 will be used");
+            this.POPULATION_SIZE = 100;
+        }
+        if (this.ELITE_COUNT == -1) {
+            System.out.println("Constant ELITE_COUNT was not set. Default of 1 will be used");
+            this.ELITE_COUNT = 1;
+        }
+        if (this.MUTATION_RATE == -1.0) {
+            System.out.println("Constant MUTATION_RATE was not set. Default of 0.1 will be used");
+            this.MUTATION_RATE = 0.1;
+        }
+
+        if (this.POPULATION_SIZE < 2 || this.ELITE_COUNT < 0 || this.ELITE_COUNT > this.POPULATION_SIZE) {
+            throw new IllegalArgumentException("population.size must be at least 2 and elite.count between 0 and "
+                    + "population.size");
+        }
+        switch (selectionMethod.toLowerCase()) {
+            case "roulette":
+            case "proportional":
+                this.TRUNCATION = false;
+                break;
+            case "truncation":
+                this.TRUNCATION = true;
+                break;
+            default: {
+                this.TRUNCATION = true;
+                System.out.println("Selection method " + selectionMethod
+                        + " is not supported by the population arena. Truncation will be used.");
+                break;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface ArenaFitness {
+        /**
+         * ensures: returns the fitness of the row of genes starting at offset
+         *
+         * @param genes  the packed genes of the population
+         * @param offset the first word of the row
+         * @param length the number of bits in the row
+         * @return the fitness of the row
+         */
+        double evaluate(long[] genes, int offset, int length);
+    }
+}
@@ -0,0 +1,175 @@
+package ga;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+/**
+ * a snapshot of the fitness statistics of one generation, computed in a single
+ * pass over the population and shared by every logger and the termination check
+ */
+public class PopulationStatistics {
+    private int generation;
+    private int size;
+    private double max;
+    private double min;
+    private double mean;
+    private double variance;
+    private int fittestIndex;
+    private double diversity;
+
+    /**
+     * ensures: instantiates a snapshot from already computed values
+     *
+     * @param generation   the generation the snapshot describes
+     * @param size         the number of genomes in the population
+     * @param max          the highest fitness
+     * @param min          the lowest fitness
+     * @param mean         the mean fitness
+     * @param variance     the population variance of the fitness
+     * @param fittestIndex the index of the first genome with the highest fitness
+     * @param diversity    the fraction of distinct genomes, or NaN if not measured
+     */
+    public PopulationStatistics(int generation, int size, double max, double min, double mean, double variance,
+            int fittestIndex, double diversity) {
+        this.generation = generation;
+        this.size = size;
+        this.max = max;
+        this.min = min;
+        this.mean = mean;
+        this.variance = variance;
+        this.fittestIndex = fittestIndex;
+        this.diversity = diversity;
+    }
+
+    /**
+     * ensures: computes the statistics of a population in one pass
+     * requires: the population is not empty
+     *
+     * @param population       the genomes to describe
+     * @param generation       the generation of the population
+     * @param measureDiversity whether to count the distinct genomes, which needs
+     *                         the content key of every genome
+     * @return the statistics of the population
+     */
+    public static <T extends Genome> PopulationStatistics of(ArrayList<T> population, int generation,
+            boolean measureDiversity) {
+        double max = population.get(0).fitness();
+        double min = max;
+        double mean = 0;
+        double squaredDeviations = 0;
+        int fittestIndex = 0;
+        HashSet<Object> distinct = measureDiversity ? new HashSet<Object>() : null;
+
+        for (int i = 0; i < population.size(); i++) {
+            T genome = population.get(i);
+            double fitness = genome.fitness();
+            if (fitness > max) {
+                max = fitness;
+                fittestIndex = i;
+            }
+            if (fitness < min) {
+                min = fitness;
+            }
+            // Welford's update keeps the variance accurate in a single pass
+            double delta = fitness - mean;
+            mean += delta / (i + 1);
+            squaredDeviations += delta * (fitness - mean);
+
+            if (distinct != null) {
+                Object key = genome.contentKey();
+                distinct.add(key == null ? genome : key);
+            }
+        }
+
+        double diversity = distinct == null ? Double.NaN : (double) distinct.size() / population.size();
+        return new PopulationStatistics(generation, population.size(), max, min, mean,
+                squaredDeviations / population.size(), fittestIndex, diversity);
+    }
+
+    /**
+     * ensures: returns the generation the snapshot describes
+     *
+     * @return generation
+     */
+    public int generation() {
+        return this.generation;
+    }
+
+    /**
+     * ensures: returns the number of genomes in the population
+     *
+     * @return the population size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * ensures: returns the highest fitness in the population
+     *
+     * @return the max fitness
+     */
+    public double max() {
+        return this.max;
+    }
+
+    /**
+     * ensures: returns the lowest fitness in the population
+     *
+     * @return the min fitness
+     */
+    public double min() {
+        return this.min;
+    }
+
+    /**
+     * ensures: returns the mean fitness of the population
+     *
+     * @return the mean fitness
+     */
+    public double mean() {
+        return this.mean;
+    }
+
+    /**
+     * ensures: returns the population variance of the fitness
+     *
+     * @return the variance of the fitness
+     */
+    public double variance() {
+        return this.variance;
+    }
+
+    /**
+     * ensures: returns the standard deviation of the fitness
+     *
+     * @return the standard deviation of the fitness
+     */
+    public double standardDeviation() {
+        return Math.sqrt(this.variance);
+    }
+
+    /**
+     * ensures: returns the index of the first genome with the highest fitness
+     *
+     * @return the index of the fittest genome
+     */
+    public int fittestIndex() {
+        return this.fittestIndex;
+    }
+
+    /**
+     * ensures: returns the fraction of genomes that are distinct
+     *
+     * @return the diversity, or NaN if it was not measured
+     */
+    public double diversity() {
+        return this.diversity;
+    }
+
+    @Override
+    public String toString() {
+        return "PopulationStatistics[generation=" + this.generation + ", max=" + this.max + ", mean=" + this.mean
+                + ", min=" + this.min + ", variance=" + this.variance + "]";
+    }
+}
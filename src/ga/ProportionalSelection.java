@@ -0,0 +1,36 @@
+package ga;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * fitness proportional (roulette wheel) selection drawn from an alias table, so
+ * each draw is O(1) after an O(n) build per generation
+ *
+ * negative fitness is shifted so the least fit genome has weight zero
+ */
+public class ProportionalSelection implements SelectionMethod {
+    private AliasTable table = new AliasTable();
+    private double[] weights;
+
+    @Override
+    public void prepare(List<? extends Genome> population, int draws, Random rand) {
+        this.weights = SelectionMethod.fitnessOf(population, this.weights);
+        int size = population.size();
+        double min = 0;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, this.weights[i]);
+        }
+        if (min < 0) {
+            for (int i = 0; i < size; i++) {
+                this.weights[i] -= min;
+            }
+        }
+        this.table.build(this.weights, size);
+    }
+
+    @Override
+    public int select(Random rand) {
+        return this.table.sample(rand);
+    }
+}
@@ -0,0 +1,321 @@
+package ga;
+
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * a genome of real numbers within fixed bounds, stored in a double[]
+ *
+ * subclasses only provide the fitness function and implement Cloneable, the
+ * standard operators are built in: simulated binary (SBX), blend (BLX-alpha) or
+ * arithmetic crossover, and polynomial or Gaussian mutation. children are
+ * cloned from a parent and evaluated lazily, and with genome.recycling they
+ * reuse the arrays of retired genomes, so breeding allocates nothing
+ */
+public abstract class RealValuedGenome extends Genome implements Cloneable {
+    private static final double EPSILON = 1e-14;
+
+    protected double[] genes;
+    protected double lowerBound;
+    protected double upperBound;
+
+    // the operators and their parameters, subclasses may change them in their constructor
+    protected Crossover crossoverOperator = Crossover.SIMULATED_BINARY;
+    protected Mutation mutationOperator = Mutation.POLYNOMIAL;
+    protected double crossoverEta = 15.0;
+    protected double mutationEta = 20.0;
+    protected double blendAlpha = 0.5;
+    protected double gaussianSigma;
+
+    /**
+     * ensures: instantiates a genome with genes drawn uniformly from the bounds
+     *
+     * @param length     the number of genes
+     * @param lowerBound the lowest value a gene may take
+     * @param upperBound the highest value a gene may take
+     * @param rand       the source of randomness
+     */
+    public RealValuedGenome(int length, double lowerBound, double upperBound, Random rand) {
+        this(new double[length], lowerBound, upperBound, rand);
+        for (int gene = 0; gene < length; gene++) {
+            this.genes[gene] = lowerBound + rand.nextDouble() * (upperBound - lowerBound);
+        }
+    }
+
+    /**
+     * ensures: instantiates a genome holding the given genes
+     *
+     * @param genes      the genes, which the genome takes ownership of
+     * @param lowerBound the lowest value a gene may take
+     * @param upperBound the highest value a gene may take
+     * @param rand       the source of randomness
+     */
+    public RealValuedGenome(double[] genes, double lowerBound, double upperBound, Random rand) {
+        super(genes.length, rand);
+        if (!(lowerBound < upperBound)) {
+            throw new IllegalArgumentException("The lower bound " + lowerBound + " must be below the upper bound "
+                    + upperBound);
+        }
+        this.genes = genes;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.gaussianSigma = (upperBound - lowerBound) / 10;
+        this.invalidateFitness();
+    }
+
+    /**
+     * ensures: returns the fitness of the given genes
+     *
+     * @param genes the genes to evaluate, which must not be modified
+     * @return the fitness
+     */
+    protected abstract double fitnessOf(double[] genes);
+
+    /**
+     * ensures: returns the genes of this genome
+     *
+     * @return the genes, which must not be modified
+     */
+    public double[] genes() {
+        return this.genes;
+    }
+
+    @Override
+    protected void calculateFitness() {
+        this.fitness = this.fitnessOf(this.genes);
+    }
+
+    @Override
+    public ArrayList<Genome> crossover(Genome other) {
+        return this.crossover(other, this.rand);
+    }
+
+    @Override
+    public ArrayList<Genome> crossover(Genome other, Random rand) {
+        RealValuedGenome first = this.copy();
+        RealValuedGenome second = this.copy();
+        this.breed((RealValuedGenome) other, first, second, rand);
+        ArrayList<Genome> children = new ArrayList<Genome>(2);
+        children.add(first);
+        children.add(second);
+        return children;
+    }
+
+    @Override
+    public boolean crossoverInto(Genome other, Genome firstChild, Genome secondChild, Random rand) {
+        if (other.getClass() != this.getClass() || firstChild.getClass() != this.getClass()
+                || secondChild.getClass() != this.getClass() || other.size() != this.size
+                || firstChild.size() != this.size || secondChild.size() != this.size) {
+            return false;
+        }
+        this.breed((RealValuedGenome) other, (RealValuedGenome) firstChild, (RealValuedGenome) secondChild, rand);
+        return true;
+    }
+
+    @Override
+    public void mutate(double mutationRate) {
+        this.mutate(mutationRate, this.rand);
+    }
+
+    @Override
+    public void mutate(double mutationRate, Random rand) {
+        if (mutationRate <= 0) {
+            return;
+        }
+        if (this.mutationOperator == Mutation.GAUSSIAN) {
+            GeneKernels.gaussianMutation(this.genes, mutationRate, this.gaussianSigma, this.lowerBound,
+                    this.upperBound, rand);
+        } else {
+            this.polynomialMutation(mutationRate, rand);
+        }
+        this.invalidateFitness();
+    }
+
+    @Override
+    public Object contentKey() {
+        return DoubleBuffer.wrap(this.genes.clone());
+    }
+
+    @Override
+    public void copyGenesTo(double[] destination, int offset) {
+        System.arraycopy(this.genes, 0, destination, offset, this.size);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.genes);
+    }
+
+    /**
+     * ensures: writes the children of this genome and the other into the given
+     * genomes with the chosen crossover operator
+     *
+     * @param other  the second parent
+     * @param first  the genome to become the first child
+     * @param second the genome to become the second child
+     * @param rand   the source of randomness
+     */
+    private void breed(RealValuedGenome other, RealValuedGenome first, RealValuedGenome second, Random rand) {
+        switch (this.crossoverOperator) {
+            case BLEND:
+                GeneKernels.blendCrossover(this.genes, other.genes, this.blendAlpha, first.genes, rand);
+                GeneKernels.blendCrossover(this.genes, other.genes, this.blendAlpha, second.genes, rand);
+                clamp(first.genes, this.lowerBound, this.upperBound);
+                clamp(second.genes, this.lowerBound, this.upperBound);
+                break;
+            case ARITHMETIC:
+                GeneKernels.arithmeticCrossover(this.genes, other.genes, rand.nextDouble(), first.genes,
+                        second.genes);
+                break;
+            default:
+                this.simulatedBinaryCrossover(other, first.genes, second.genes, rand);
+                break;
+        }
+        first.inheritFrom(this);
+        second.inheritFrom(this);
+    }
+
+    /**
+     * ensures: takes the bounds and operators of the parent and marks the genes
+     * as needing evaluation
+     *
+     * @param parent the parent the child is bred from
+     */
+    private void inheritFrom(RealValuedGenome parent) {
+        this.rand = parent.rand;
+        this.lowerBound = parent.lowerBound;
+        this.upperBound = parent.upperBound;
+        this.invalidateFitness();
+    }
+
+    /**
+     * ensures: bounded simulated binary crossover, each gene crossed with
+     * probability one half
+     *
+     * @param other  the second parent
+     * @param first  the genes of the first child
+     * @param second the genes of the second child
+     * @param rand   the source of randomness
+     */
+    private void simulatedBinaryCrossover(RealValuedGenome other, double[] first, double[] second, Random rand) {
+        double exponent = 1.0 / (this.crossoverEta + 1.0);
+        double range = this.upperBound - this.lowerBound;
+        for (int gene = 0; gene < this.size; gene++) {
+            double a = this.genes[gene];
+            double b = other.genes[gene];
+            if (rand.nextDouble() >= 0.5 || Math.abs(a - b) <= EPSILON * range) {
+                first[gene] = a;
+                second[gene] = b;
+                continue;
+            }
+
+            double low = Math.min(a, b);
+            double high = Math.max(a, b);
+            double spread = high - low;
+            double r = rand.nextDouble();
+
+            // the spread factor is limited so neither child leaves the bounds
+            double beta = 1.0 + 2.0 * (low - this.lowerBound) / spread;
+            double alpha = 2.0 - Math.pow(beta, -(this.crossoverEta + 1.0));
+            double betaQ = r <= 1.0 / alpha ? Math.pow(r * alpha, exponent) : Math.pow(1.0 / (2.0 - r * alpha), exponent);
+            double lowChild = 0.5 * ((low + high) - betaQ * spread);
+
+            beta = 1.0 + 2.0 * (this.upperBound - high) / spread;
+            alpha = 2.0 - Math.pow(beta, -(this.crossoverEta + 1.0));
+            betaQ = r <= 1.0 / alpha ? Math.pow(r * alpha, exponent) : Math.pow(1.0 / (2.0 - r * alpha), exponent);
+            double highChild = 0.5 * ((low + high) + betaQ * spread);
+
+            lowChild = Math.min(this.upperBound, Math.max(this.lowerBound, lowChild));
+            highChild = Math.min(this.upperBound, Math.max(this.lowerBound, highChild));
+            if (rand.nextDouble() < 0.5) {
+                first[gene] = lowChild;
+                second[gene] = highChild;
+            } else {
+                first[gene] = highChild;
+                second[gene] = lowChild;
+            }
+        }
+    }
+
+    /**
+     * ensures: bounded polynomial mutation of each gene with the given probability
+     *
+     * @param mutationRate the probability of mutating each gene
+     * @param rand         the source of randomness
+     */
+    private void polynomialMutation(double mutationRate, Random rand) {
+        double exponent = 1.0 / (this.mutationEta + 1.0);
+        double range = this.upperBound - this.lowerBound;
+        for (int gene = 0; gene < this.size; gene++) {
+            if (rand.nextDouble() >= mutationRate) {
+                continue;
+            }
+            double value = this.genes[gene];
+            double r = rand.nextDouble();
+            double shift;
+            if (r < 0.5) {
+                double room = 1.0 - (value - this.lowerBound) / range;
+                double base = 2.0 * r + (1.0 - 2.0 * r) * Math.pow(room, this.mutationEta + 1.0);
+                shift = Math.pow(base, exponent) - 1.0;
+            } else {
+                double room = 1.0 - (this.upperBound - value) / range;
+                double base = 2.0 * (1.0 - r) + 2.0 * (r - 0.5) * Math.pow(room, this.mutationEta + 1.0);
+                shift = 1.0 - Math.pow(base, exponent);
+            }
+            this.genes[gene] = Math.min(this.upperBound, Math.max(this.lowerBound, value + shift * range));
+        }
+    }
+
+    /**
+     * ensures: returns a copy of this genome with its own genes
+     *
+     * @return the copy
+     */
+    private RealValuedGenome copy() {
+        try {
+            RealValuedGenome copy = (RealValuedGenome) this.clone();
+            copy.genes = this.genes.clone();
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(this.getClass().getName() + " must implement Cloneable", e);
+        }
+    }
+
+    /**
+     * ensures: limits every gene to the bounds
+     *
+     * @param genes the genes to limit
+     * @param lower the lowest value a gene may take
+     * @param upper the highest value a gene may take
+     */
+    private static void clamp(double[] genes, double lower, double upper) {
+        for (int gene = 0; gene < genes.length; gene++) {
+            genes[gene] = Math.min(upper, Math.max(lower, genes[gene]));
+        }
+    }
+
+    /**
+     * how two real valued parents are combined
+     */
+    public enum Crossover {
+        // simulated binary crossover, children spread around the parents like a
+        // one point crossover of binary strings would, controlled by crossoverEta
+        SIMULATED_BINARY,
+        // BLX-alpha, each gene drawn uniformly from the widened range of the parents
+        BLEND,
+        // weighted means of the parents with one random weight
+        ARITHMETIC
+    }
+
+    /**
+     * how a real valued gene is changed
+     */
+    public enum Mutation {
+        // bounded polynomial mutation, controlled by mutationEta
+        POLYNOMIAL,
+        // normally distributed noise with standard deviation gaussianSigma
+        GAUSSIAN
+    }
+}
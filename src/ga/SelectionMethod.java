@@ -0,0 +1,50 @@
+package ga;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * chooses the parents of the next generation
+ *
+ * prepare is called once per generation with the population, after which
+ * select is called once per parent. implementations do their O(n) work in
+ * prepare so that every draw is cheap
+ */
+public interface SelectionMethod {
+
+    /**
+     * ensures: readies the method to draw parents from the population
+     * requires: the population is not empty and no genome is modified until the
+     * draws are done
+     *
+     * @param population the genomes parents are drawn from
+     * @param draws      the number of parents that will be drawn
+     * @param rand       the source of randomness
+     */
+    void prepare(List<? extends Genome> population, int draws, Random rand);
+
+    /**
+     * ensures: draws a parent
+     *
+     * @param rand the source of randomness
+     * @return the index of the parent in the prepared population
+     */
+    int select(Random rand);
+
+    /**
+     * ensures: copies the fitness of every genome into an array, reusing the given
+     * one when it is large enough
+     *
+     * @param population the genomes
+     * @param buffer     an array to reuse, may be null
+     * @return an array holding the fitness of each genome at its index
+     */
+    static double[] fitnessOf(List<? extends Genome> population, double[] buffer) {
+        int size = population.size();
+        double[] fitness = buffer != null && buffer.length >= size ? buffer : new double[size];
+        for (int i = 0; i < size; i++) {
+            fitness[i] = population.get(i).fitness();
+        }
+        return fitness;
+    }
+}
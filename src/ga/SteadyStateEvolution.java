@@ -0,0 +1,393 @@
+package ga;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * evolves a population without generations: every worker thread repeatedly
+ * draws two parents by tournament, breeds, mutates and evaluates their children
+ * and inserts each child straight back into the shared population
+ *
+ * no worker ever waits for another worker's evaluation, so cores stay busy even
+ * when the cost of fitness varies a lot between genomes. only choosing parents
+ * and replacing a genome take the population lock, both in O(log n) or less.
+ * progress is counted in evaluations rather than generations, and because the
+ * workers interleave freely runs are not reproducible from the seed
+ */
+public class SteadyStateEvolution<T extends Genome> {
+    private Random rand;
+    private ArrayList<Logger<T>> loggers;
+
+    // the population, guarded by lock
+    private ReentrantLock lock = new ReentrantLock();
+    private Genome[] slots;
+    private double[] fitness;
+    // a min heap of slot indices by fitness, and the position of each slot in it
+    private int[] heap;
+    private int[] heapPosition;
+    private int fittestSlot;
+
+    private AtomicLong evaluations = new AtomicLong();
+
+    private Replacement REPLACEMENT = Replacement.WORST;
+    private int WORKERS = Runtime.getRuntime().availableProcessors();
+    private int TOURNAMENT_SIZE = 2;
+    private long REPORT_INTERVAL = -1;
+    private double MUTATION_RATE = -1.0;
+    private double FITNESS_THRESHOLD = -1.0;
+
+    /**
+     * ensures: instantiates everything needed to run the steady state algorithm
+     * requires: the population holds at least two genomes
+     *
+     * @param configFileName    the path of the config file to use
+     * @param initialPopulation the genomes to start from
+     * @param rand              the source of randomness the workers are seeded from
+     * @param loggers           the loggers given a snapshot of the population every
+     *                          report interval, with the number of evaluations in
+     *                          place of the generation
+     */
+    public SteadyStateEvolution(String configFileName, ArrayList<T> initialPopulation, Random rand,
+            ArrayList<Logger<T>> loggers) {
+        this(GAConfig.load(configFileName), initialPopulation, rand, loggers);
+    }
+
+    /**
+     * ensures: instantiates everything needed to run the steady state algorithm
+     * with settings of its own, which no other algorithm in the JVM affects
+     * requires: the population holds at least two genomes
+     *
+     * @param config            the settings to use
+     * @param initialPopulation the genomes to start from
+     * @param rand              the source of randomness the workers are seeded from
+     * @param loggers           the loggers given a snapshot of the population every
+     *                          report interval, with the number of evaluations in
+     *                          place of the generation
+     */
+    public SteadyStateEvolution(GAConfig config, ArrayList<T> initialPopulation, Random rand,
+            ArrayList<Logger<T>> loggers) {
+        if (initialPopulation.size() < 2) {
+            throw new IllegalArgumentException("Steady state evolution needs at least 2 genomes but got "
+                    + initialPopulation.size());
+        }
+        this.verifyConstants(config);
+        this.rand = rand;
+        this.loggers = loggers;
+
+        int size = initialPopulation.size();
+        if (this.REPORT_INTERVAL <= 0) {
+            this.REPORT_INTERVAL = size;
+        }
+        this.slots = new Genome[size];
+        this.fitness = new double[size];
+        this.heap = new int[size];
+        this.heapPosition = new int[size];
+        this.fittestSlot = 0;
+        for (int slot = 0; slot < size; slot++) {
+            this.slots[slot] = initialPopulation.get(slot);
+            this.fitness[slot] = initialPopulation.get(slot).fitness();
+            this.heap[slot] = slot;
+            this.heapPosition[slot] = slot;
+            if (this.fitness[slot] > this.fitness[this.fittestSlot]) {
+                this.fittestSlot = slot;
+            }
+        }
+        for (int i = (size >> 1) - 1; i >= 0; i--) {
+            this.siftDown(i);
+        }
+    }
+
+    /**
+     * ensures: returns the number of children evaluated so far
+     *
+     * @return the evaluation count
+     */
+    public long evaluations() {
+        return this.evaluations.get();
+    }
+
+    /**
+     * ensures: returns the fittest genome of the population
+     *
+     * @return the fittest genome
+     */
+    @SuppressWarnings("unchecked")
+    public T fittestGenome() {
+        this.lock.lock();
+        try {
+            return (T) this.slots[this.fittestSlot];
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * ensures: returns a copy of the current population
+     *
+     * @return the genomes of the population
+     */
+    @SuppressWarnings("unchecked")
+    public ArrayList<T> population() {
+        this.lock.lock();
+        try {
+            ArrayList<T> population = new ArrayList<T>(this.slots.length);
+            for (Genome genome : this.slots) {
+                population.add((T) genome);
+            }
+            return population;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * ensures: returns true if the fittest genome has reached the fitness threshold
+     *
+     * @return whether the threshold has been reached
+     */
+    public boolean thresholdReached() {
+        this.lock.lock();
+        try {
+            return this.fitness[this.fittestSlot] >= this.FITNESS_THRESHOLD;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * ensures: evolves the population until a designated number of further
+     * children have been evaluated or the fitness threshold is reached
+     *
+     * @param evaluations the number of children to evaluate
+     * @return the fittest genome at the end of the run
+     */
+    public T run(long evaluations) {
+        long budget = this.evaluations.get() + evaluations;
+        AtomicBoolean stop = new AtomicBoolean(this.thresholdReached());
+        AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread[] threads = new Thread[this.WORKERS];
+
+        for (int worker = 0; worker < threads.length; worker++) {
+            Random workerRand = new Random(this.rand.nextLong());
+            threads[worker] = new Thread(() -> {
+                try {
+                    this.work(budget, stop, workerRand);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                    stop.set(true);
+                }
+            }, "Steady state worker " + worker);
+            threads[worker].start();
+        }
+
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                stop.set(true);
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for the workers", e);
+            }
+        }
+        if (failure.get() != null) {
+            throw new RuntimeException("A worker failed", failure.get());
+        }
+
+        return this.fittestGenome();
+    }
+
+    /**
+     * ensures: breeds and inserts children until the budget is spent or the run is
+     * stopped
+     *
+     * @param budget the evaluation count at which to stop
+     * @param stop   set once the threshold is reached or a worker fails
+     * @param rand   the worker's own source of randomness
+     */
+    private void work(long budget, AtomicBoolean stop, Random rand) {
+        while (!stop.get()) {
+            Genome mother;
+            Genome father;
+            this.lock.lock();
+            try {
+                int first = this.tournament(rand);
+                int second = this.tournament(rand);
+                for (int retry = 0; second == first && retry < 8; retry++) {
+                    second = this.tournament(rand);
+                }
+                mother = this.slots[first];
+                father = this.slots[second];
+            } finally {
+                this.lock.unlock();
+            }
+
+            // genomes in the population are never modified, only replaced, so
+            // breeding and evaluating need no lock
+            for (Genome child : mother.crossover(father, rand)) {
+                long evaluation = this.evaluations.incrementAndGet();
+                if (evaluation > budget) {
+                    this.evaluations.decrementAndGet(); // this child is never evaluated
+                    stop.set(true);
+                    return;
+                }
+                child.mutate(this.MUTATION_RATE, rand);
+                double childFitness = child.fitness();
+
+                if (this.insert(child, childFitness, rand)) {
+                    stop.set(true);
+                }
+                if (evaluation % this.REPORT_INTERVAL == 0) {
+                    this.report(evaluation);
+                }
+            }
+        }
+    }
+
+    /**
+     * ensures: runs a tournament among random genomes of the population
+     * requires: the lock is held
+     *
+     * @param rand the source of randomness
+     * @return the slot of the winner
+     */
+    private int tournament(Random rand) {
+        int winner = rand.nextInt(this.slots.length);
+        for (int i = 1; i < this.TOURNAMENT_SIZE; i++) {
+            int challenger = rand.nextInt(this.slots.length);
+            if (this.fitness[challenger] > this.fitness[winner]) {
+                winner = challenger;
+            }
+        }
+        return winner;
+    }
+
+    /**
+     * ensures: replaces a genome with the child if the child is fitter than it
+     *
+     * @param child        the evaluated child
+     * @param childFitness the fitness of the child
+     * @param rand         the source of randomness
+     * @return true if the child reached the fitness threshold
+     */
+    private boolean insert(Genome child, double childFitness, Random rand) {
+        this.lock.lock();
+        try {
+            int slot;
+            if (this.REPLACEMENT == Replacement.WORST) {
+                slot = this.heap[0];
+            } else {
+                // the least fit of a random few loses its place
+                slot = rand.nextInt(this.slots.length);
+                for (int i = 1; i < this.TOURNAMENT_SIZE; i++) {
+                    int challenger = rand.nextInt(this.slots.length);
+                    if (this.fitness[challenger] < this.fitness[slot]) {
+                        slot = challenger;
+                    }
+                }
+            }
+            if (childFitness <= this.fitness[slot]) {
+                return false;
+            }
+
+            this.slots[slot] = child;
+            this.fitness[slot] = childFitness;
+            this.siftDown(this.heapPosition[slot]); // the fitness only went up
+            if (childFitness > this.fitness[this.fittestSlot]) {
+                this.fittestSlot = slot;
+            }
+            return childFitness >= this.FITNESS_THRESHOLD;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * ensures: restores the heap below a position whose fitness increased
+     * requires: the lock is held
+     *
+     * @param position the position in the heap
+     */
+    private void siftDown(int position) {
+        int size = this.heap.length;
+        int slot = this.heap[position];
+        while (true) {
+            int child = (position << 1) + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && this.fitness[this.heap[child + 1]] < this.fitness[this.heap[child]]) {
+                child++;
+            }
+            if (this.fitness[this.heap[child]] >= this.fitness[slot]) {
+                break;
+            }
+            this.heap[position] = this.heap[child];
+            this.heapPosition[this.heap[position]] = position;
+            position = child;
+        }
+        this.heap[position] = slot;
+        this.heapPosition[slot] = position;
+    }
+
+    /**
+     * ensures: hands a snapshot of the population to every logger
+     *
+     * @param evaluation the number of evaluations the snapshot follows
+     */
+    private void report(long evaluation) {
+        ArrayList<T> snapshot = this.population();
+        int progress = (int) Math.min(evaluation, Integer.MAX_VALUE);
+        PopulationStatistics statistics = PopulationStatistics.of(snapshot, progress, false);
+        synchronized (this.loggers) {
+            for (Logger<T> logger : this.loggers) {
+                logger.log(snapshot, progress, statistics);
+            }
+        }
+    }
+
+    /**
+     * ensures: validates and instantiates the constants from the config
+     *
+     * @param config the settings to use
+     */
+    private void verifyConstants(GAConfig config) {
+        this.MUTATION_RATE = config.getDouble("mutation.rate", -1.0);
+        this.FITNESS_THRESHOLD = config.getDouble("fitness.threshold", -1.0);
+        this.WORKERS = config.getInt("steady.workers", this.WORKERS);
+        String replacement = config.get("steady.replacement");
+        if (replacement != null) {
+            this.REPLACEMENT = Replacement.valueOf(replacement.toUpperCase());
+        }
+        this.REPORT_INTERVAL = config.getLong("steady.report.interval", this.REPORT_INTERVAL);
+        this.TOURNAMENT_SIZE = config.getInt("tournament.size", this.TOURNAMENT_SIZE);
+
+        if (this.MUTATION_RATE == -1.0) {
+            System.out.println("Constant MUTATION_RATE was not set. Default of 0.1 will be used");
+            this.MUTATION_RATE = 0.1;
+        }
+        if (this.FITNESS_THRESHOLD == -1) {
+            System.out.println("Constant FITNESS_THRESHOLD was not set. Algorithm will not stop early");
+            this.FITNESS_THRESHOLD = Double.MAX_VALUE;
+        }
+        if (this.WORKERS < 1) {
+            throw new IllegalArgumentException("steady.workers must be at least 1 but was " + this.WORKERS);
+        }
+        if (this.TOURNAMENT_SIZE < 1) {
+            throw new IllegalArgumentException("tournament.size must be at least 1 but was " + this.TOURNAMENT_SIZE);
+        }
+    }
+
+    /**
+     * which genome a fitter child replaces
+     */
+    public enum Replacement {
+        // the least fit genome of the population
+        WORST,
+        // the least fit of tournament.size genomes drawn at random
+        TOURNAMENT
+    }
+}
@@ -0,0 +1,72 @@
+package ga;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * fitness proportional selection that places all the draws of a generation at
+ * evenly spaced points on one spin of the wheel, so every genome is drawn within
+ * one of its expected number of times
+ *
+ * the draws are shuffled so consecutive parents are not neighbours on the wheel.
+ * negative fitness is shifted so the least fit genome has weight zero
+ */
+public class StochasticUniversalSampling implements SelectionMethod {
+    private double[] weights;
+    private int[] picks = new int[0];
+    private int pickCount;
+    private int next;
+
+    @Override
+    public void prepare(List<? extends Genome> population, int draws, Random rand) {
+        this.weights = SelectionMethod.fitnessOf(population, this.weights);
+        int size = population.size();
+        double min = 0;
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, this.weights[i]);
+            total += this.weights[i];
+        }
+        total -= min * size;
+
+        this.pickCount = Math.max(draws, 1);
+        if (this.picks.length < this.pickCount) {
+            this.picks = new int[this.pickCount];
+        }
+        if (total <= 0) {
+            // no genome is fitter than another, fall back to uniform draws
+            for (int i = 0; i < this.pickCount; i++) {
+                this.picks[i] = rand.nextInt(size);
+            }
+        } else {
+            double step = total / this.pickCount;
+            double pointer = rand.nextDouble() * step;
+            double cumulative = this.weights[0] - min;
+            int genome = 0;
+            for (int i = 0; i < this.pickCount; i++) {
+                while (cumulative <= pointer && genome < size - 1) {
+                    cumulative += this.weights[++genome] - min;
+                }
+                this.picks[i] = genome;
+                pointer += step;
+            }
+        }
+
+        for (int i = this.pickCount - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int temp = this.picks[i];
+            this.picks[i] = this.picks[j];
+            this.picks[j] = temp;
+        }
+        this.next = 0;
+    }
+
+    @Override
+    public int select(Random rand) {
+        // draws beyond those prepared for start over on the same spin
+        if (this.next == this.pickCount) {
+            this.next = 0;
+        }
+        return this.picks[this.next++];
+    }
+}
@@ -0,0 +1,64 @@
+package ga;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * a cheap approximation of the fitness function, learned from genomes that were
+ * evaluated exactly, for deciding which children are worth evaluating
+ *
+ * genes are handed over as written by Genome.copyGenesTo, every call with the
+ * same number of genes. predictions only rank children, they never become the
+ * fitness of a genome. surrogates that implement write and read are carried
+ * through checkpoints, others cannot be used with checkpoints
+ */
+public interface Surrogate {
+
+    /**
+     * ensures: learns from a genome that was evaluated exactly
+     * requires: does not keep a reference to genes, the array is reused
+     *
+     * @param genes   the genes of the genome
+     * @param fitness its exact fitness
+     */
+    void observe(double[] genes, double fitness);
+
+    /**
+     * ensures: returns the estimated fitness of a genome, higher meaning fitter
+     * requires: does not keep a reference to genes, the array is reused
+     *
+     * @param genes the genes of the genome
+     * @return the estimate
+     */
+    double predict(double[] genes);
+
+    /**
+     * ensures: returns the number of genomes observed so far
+     *
+     * @return observations
+     */
+    long observations();
+
+    /**
+     * ensures: writes everything the surrogate has learned, so read can restore it
+     *
+     * @param out the destination
+     * @throws IOException if the destination cannot be written
+     */
+    default void write(DataOutput out) throws IOException {
+        throw new UnsupportedOperationException(this.getClass().getName() + " cannot be checkpointed");
+    }
+
+    /**
+     * ensures: replaces what the surrogate has learned with what write saved
+     * requires: the surrogate was created with the same settings as the one that
+     * wrote the state
+     *
+     * @param in the source
+     * @throws IOException if the source cannot be read or is malformed
+     */
+    default void read(DataInput in) throws IOException {
+        throw new UnsupportedOperationException(this.getClass().getName() + " cannot be checkpointed");
+    }
+}
@@ -0,0 +1,318 @@
+package ga;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * selects the rows with the largest keys by reordering an array of row indices,
+ * so the rows themselves never move
+ *
+ * an introselect: median of three (or ninther) pivots with three way
+ * partitioning, so runs of equal keys are settled in one pass, falling back to
+ * median of medians pivots when the pivots keep turning out badly, so it is
+ * linear in the worst case. it uses no randomness, the same keys always give the
+ * same order
+ */
+final class TopK {
+    // below this many entries insertion sort beats partitioning
+    private static final int INSERTION_SORT_SIZE = 16;
+    // from this many entries the pivot is a median of three medians of three
+    private static final int NINTHER_SIZE = 128;
+    // the parallel variant only partitions in parallel above this many entries
+    static final int PARALLEL_THRESHOLD = 1 << 15;
+    // entries per parallel task, fixed so the result does not depend on the pool
+    private static final int CHUNK_SIZE = 1 << 13;
+
+    private TopK() {
+    }
+
+    /**
+     * ensures: reorders the first n entries of indices so the k with the largest
+     * keys come first, in no particular order
+     *
+     * @param indices the rows to reorder
+     * @param keys    the key of every row
+     * @param n       the number of entries of indices in use
+     * @param k       the number of rows to move to the front
+     */
+    static void select(int[] indices, double[] keys, int n, int k) {
+        if (k <= 0 || k >= n) {
+            return;
+        }
+        select(indices, keys, 0, n - 1, k, depthLimit(n));
+    }
+
+    /**
+     * ensures: does the same as select, partitioning large ranges on the given
+     * executor. the order produced depends only on the keys, not on the executor
+     * requires: the caller is not a task of the executor, which it waits on
+     *
+     * @param indices  the rows to reorder
+     * @param keys     the key of every row
+     * @param n        the number of entries of indices in use
+     * @param k        the number of rows to move to the front
+     * @param executor the executor to partition on
+     */
+    static void selectParallel(int[] indices, double[] keys, int n, int k, ExecutorService executor) {
+        if (k <= 0 || k >= n) {
+            return;
+        }
+        int left = 0, right = n - 1;
+        int depth = depthLimit(n);
+        int[] buffer = null;
+        while (right - left + 1 >= PARALLEL_THRESHOLD && depth > 0) {
+            if (buffer == null) {
+                buffer = new int[n];
+            }
+            double pivot = keys[indices[ninther(indices, keys, left, right)]];
+            long bounds = parallelPartition(indices, keys, left, right, pivot, buffer, executor);
+            int lt = (int) (bounds >>> 32);
+            int gt = (int) bounds;
+            if (k < lt) {
+                right = lt - 1;
+            } else if (k > gt + 1) {
+                left = gt + 1;
+            } else {
+                return;
+            }
+            depth--;
+        }
+        select(indices, keys, left, right, k, depth);
+    }
+
+    /**
+     * ensures: moves the entries of indices[left..right] so that the boundary
+     * between the first k entries of the whole array and the rest is in place
+     *
+     * @param indices the rows to reorder
+     * @param keys    the key of every row
+     * @param left    the first entry of the range
+     * @param right   the last entry of the range
+     * @param k       the number of rows that must end up before position k
+     * @param depth   the number of pivots left before falling back to median of
+     *                medians
+     */
+    private static void select(int[] indices, double[] keys, int left, int right, int k, int depth) {
+        while (left < right) {
+            if (right - left < INSERTION_SORT_SIZE) {
+                insertionSort(indices, keys, left, right);
+                return;
+            }
+            int pivotIndex;
+            if (depth > 0) {
+                depth--;
+                pivotIndex = right - left < NINTHER_SIZE ? medianOfThree(indices, keys, left,
+                        (left + right) >>> 1, right) : ninther(indices, keys, left, right);
+            } else {
+                pivotIndex = medianOfMedians(indices, keys, left, right);
+            }
+            double pivot = keys[indices[pivotIndex]];
+
+            // [left, lt) above the pivot, [lt, i) equal, (gt, right] below
+            int lt = left, i = left, gt = right;
+            while (i <= gt) {
+                double key = keys[indices[i]];
+                if (key > pivot) {
+                    swap(indices, lt++, i++);
+                } else if (key < pivot) {
+                    swap(indices, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (k < lt) {
+                right = lt - 1;
+            } else if (k > gt + 1) {
+                left = gt + 1;
+            } else {
+                return; // the boundary falls among the keys equal to the pivot
+            }
+        }
+    }
+
+    /**
+     * ensures: three way partitions indices[left..right] around the pivot using
+     * the buffer, keeping the relative order within each part
+     *
+     * @return the start of the equal part in the high 32 bits and its last entry
+     *         in the low 32 bits
+     */
+    private static long parallelPartition(int[] indices, double[] keys, int left, int right, double pivot,
+            int[] buffer, ExecutorService executor) {
+        int length = right - left + 1;
+        int chunks = (length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int[] above = new int[chunks];
+        int[] equal = new int[chunks];
+        inChunks(executor, chunks, chunk -> {
+            int from = left + chunk * CHUNK_SIZE;
+            int to = Math.min(from + CHUNK_SIZE, right + 1);
+            int a = 0, e = 0;
+            for (int i = from; i < to; i++) {
+                double key = keys[indices[i]];
+                if (key > pivot) {
+                    a++;
+                } else if (!(key < pivot)) {
+                    e++;
+                }
+            }
+            above[chunk] = a;
+            equal[chunk] = e;
+        });
+
+        // where each chunk writes its entries of each part
+        int[] aboveAt = new int[chunks];
+        int[] equalAt = new int[chunks];
+        int[] belowAt = new int[chunks];
+        int totalAbove = 0, totalEqual = 0;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            totalAbove += above[chunk];
+            totalEqual += equal[chunk];
+        }
+        int nextAbove = left, nextEqual = left + totalAbove, nextBelow = left + totalAbove + totalEqual;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int size = Math.min(CHUNK_SIZE, right + 1 - (left + chunk * CHUNK_SIZE));
+            aboveAt[chunk] = nextAbove;
+            equalAt[chunk] = nextEqual;
+            belowAt[chunk] = nextBelow;
+            nextAbove += above[chunk];
+            nextEqual += equal[chunk];
+            nextBelow += size - above[chunk] - equal[chunk];
+        }
+
+        inChunks(executor, chunks, chunk -> {
+            int from = left + chunk * CHUNK_SIZE;
+            int to = Math.min(from + CHUNK_SIZE, right + 1);
+            int a = aboveAt[chunk], e = equalAt[chunk], b = belowAt[chunk];
+            for (int i = from; i < to; i++) {
+                int index = indices[i];
+                double key = keys[index];
+                if (key > pivot) {
+                    buffer[a++] = index;
+                } else if (key < pivot) {
+                    buffer[b++] = index;
+                } else {
+                    buffer[e++] = index;
+                }
+            }
+        });
+        System.arraycopy(buffer, left, indices, left, length);
+
+        int lt = left + totalAbove;
+        int gt = lt + totalEqual - 1;
+        return ((long) lt << 32) | (gt & 0xFFFFFFFFL);
+    }
+
+    /**
+     * ensures: runs the task for every chunk on the executor and waits for all of
+     * them
+     *
+     * @param executor the executor to run on
+     * @param chunks   the number of chunks
+     * @param task     the work to do for a chunk
+     */
+    private static void inChunks(ExecutorService executor, int chunks, IntConsumer task) {
+        ArrayList<Callable<Void>> tasks = new ArrayList<Callable<Void>>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int index = chunk;
+            tasks.add(() -> {
+                task.accept(index);
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while selecting the fittest genomes", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Selecting the fittest genomes failed", e.getCause());
+        }
+    }
+
+    /**
+     * ensures: returns the position of an entry with a key close to the median of
+     * indices[left..right], found with groups of five so it is never far off
+     */
+    private static int medianOfMedians(int[] indices, double[] keys, int left, int right) {
+        if (right - left < 5) {
+            insertionSort(indices, keys, left, right);
+            return (left + right) >>> 1;
+        }
+        // gather the median of every group of five at the front of the range
+        int medians = left;
+        for (int group = left; group <= right; group += 5) {
+            int end = Math.min(group + 4, right);
+            insertionSort(indices, keys, group, end);
+            swap(indices, medians++, (group + end) >>> 1);
+        }
+        int middle = (left + medians - 1) >>> 1;
+        select(indices, keys, left, medians - 1, middle, depthLimit(medians - left));
+        // the middle median is at or after position middle, find it there
+        int best = middle;
+        for (int i = middle + 1; i < medians; i++) {
+            if (keys[indices[i]] > keys[indices[best]]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * ensures: returns the position of the median of three medians of three spread
+     * over the range
+     */
+    private static int ninther(int[] indices, double[] keys, int left, int right) {
+        int step = (right - left) >>> 3;
+        int middle = (left + right) >>> 1;
+        return medianOfThree(indices, keys,
+                medianOfThree(indices, keys, left, left + step, left + 2 * step),
+                medianOfThree(indices, keys, middle - step, middle, middle + step),
+                medianOfThree(indices, keys, right - 2 * step, right - step, right));
+    }
+
+    private static int medianOfThree(int[] indices, double[] keys, int a, int b, int c) {
+        double ka = keys[indices[a]], kb = keys[indices[b]], kc = keys[indices[c]];
+        if (ka < kb) {
+            return kb < kc ? b : (ka < kc ? c : a);
+        }
+        return ka < kc ? a : (kb < kc ? c : b);
+    }
+
+    /**
+     * ensures: sorts indices[left..right] by descending key
+     */
+    private static void insertionSort(int[] indices, double[] keys, int left, int right) {
+        for (int i = left + 1; i <= right; i++) {
+            int index = indices[i];
+            double key = keys[index];
+            int j = i - 1;
+            while (j >= left && keys[indices[j]] < key) {
+                indices[j + 1] = indices[j];
+                j--;
+            }
+            indices[j + 1] = index;
+        }
+    }
+
+    /**
+     * ensures: returns the number of pivots to try before falling back to median
+     * of medians, twice the depth of a balanced partitioning
+     */
+    private static int depthLimit(int n) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(Math.max(n, 1)));
+    }
+
+    private static void swap(int[] indices, int i, int j) {
+        int temp = indices[i];
+        indices[i] = indices[j];
+        indices[j] = temp;
+    }
+}
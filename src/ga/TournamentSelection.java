@@ -0,0 +1,47 @@
+package ga;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * draws a number of genomes uniformly at random and selects the fittest of them
+ *
+ * larger tournaments select more strongly for fitness. a tournament of size 1
+ * is uniform selection
+ */
+public class TournamentSelection implements SelectionMethod {
+    private int size;
+    private double[] fitness;
+    private int populationSize;
+
+    /**
+     * ensures: instantiates tournaments of the given size
+     *
+     * @param size the number of genomes competing in each tournament
+     */
+    public TournamentSelection(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("A tournament needs at least 1 competitor but " + size
+                    + " were requested");
+        }
+        this.size = size;
+    }
+
+    @Override
+    public void prepare(List<? extends Genome> population, int draws, Random rand) {
+        this.fitness = SelectionMethod.fitnessOf(population, this.fitness);
+        this.populationSize = population.size();
+    }
+
+    @Override
+    public int select(Random rand) {
+        int winner = rand.nextInt(this.populationSize);
+        for (int i = 1; i < this.size; i++) {
+            int challenger = rand.nextInt(this.populationSize);
+            if (this.fitness[challenger] > this.fitness[winner]) {
+                winner = challenger;
+            }
+        }
+        return winner;
+    }
+}
@@ -0,0 +1,46 @@
+package ga;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * draws parents uniformly from the fittest fraction of the population
+ */
+public class TruncationSelection implements SelectionMethod {
+    private double fraction;
+    private double[] fitness;
+    private int[] order = new int[0];
+    private int parents;
+
+    /**
+     * ensures: instantiates truncation selection keeping the given fraction
+     *
+     * @param fraction the fraction of the population allowed to breed, in (0, 1]
+     */
+    public TruncationSelection(double fraction) {
+        if (!(fraction > 0.0 && fraction <= 1.0)) {
+            throw new IllegalArgumentException("The truncation fraction must be in (0, 1] but was " + fraction);
+        }
+        this.fraction = fraction;
+    }
+
+    @Override
+    public void prepare(List<? extends Genome> population, int draws, Random rand) {
+        int size = population.size();
+        this.fitness = SelectionMethod.fitnessOf(population, this.fitness);
+        if (this.order.length < size) {
+            this.order = new int[size];
+        }
+        for (int i = 0; i < size; i++) {
+            this.order[i] = i;
+        }
+        // at least two parents so mates can differ
+        this.parents = Math.min(size, Math.max(2, (int) (size * this.fraction)));
+        TopK.select(this.order, this.fitness, size, this.parents);
+    }
+
+    @Override
+    public int select(Random rand) {
+        return this.order[rand.nextInt(this.parents)];
+    }
+}
@@ -0,0 +1,21 @@
+package ga;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * draws every genome with equal probability regardless of fitness
+ */
+public class UniformSelection implements SelectionMethod {
+    private int size;
+
+    @Override
+    public void prepare(List<? extends Genome> population, int draws, Random rand) {
+        this.size = population.size();
+    }
+
+    @Override
+    public int select(Random rand) {
+        return rand.nextInt(this.size);
+    }
+}